@@ -11,6 +11,8 @@ import java.util.stream.Collectors;
  * A builder class for creating immutable maps with a fluent API.
  * It extends HashMap to allow easy conversion to a standard map if needed.
  * Null keys and values are ignored when adding entries.
+ * When the map is only read once built, {@link #buildImmutable()} copies the entries once into a compact immutable map
+ * instead of keeping them in the builder as well, and {@link #builder(int)} presizes the builder for the expected number of entries.
  *
  * @param <K> the type of keys maintained by this map
  * @param <V> the type of mapped values
@@ -20,12 +22,25 @@ public class MapBuilder<K, V> extends HashMap<K, V> {
 
     private final transient Map<K, V> map;
 
-    private MapBuilder() {
-        this.map = new LinkedHashMap<>();
+    private MapBuilder(int expectedSize) {
+        super(0);
+        this.map = LinkedHashMap.newLinkedHashMap(expectedSize);
     }
 
     public static <I,O> MapBuilder<I, O> builder() {
-        return new MapBuilder<>();
+        return new MapBuilder<>(16);
+    }
+
+    /**
+     * Creates a builder presized for the expected number of entries, so adding them never resizes its table.
+     *
+     * @param expectedSize the expected number of entries
+     * @param <I>          the type of keys
+     * @param <O>          the type of values
+     * @return a new presized builder
+     */
+    public static <I,O> MapBuilder<I, O> builder(int expectedSize) {
+        return new MapBuilder<>(expectedSize);
     }
 
     public MapBuilder<K, V> add(K key, V value) {
@@ -36,10 +51,21 @@ public class MapBuilder<K, V> extends HashMap<K, V> {
     }
 
     public Map<K, V> build() {
-        this.putAll(ImmutableMap.copyOf(map));
+        this.putAll(map);
         return this;
     }
 
+    /**
+     * Builds an immutable map holding the added entries in insertion order.
+     * The entries are copied once into a table sized for them, and the builder can be discarded,
+     * so only one copy of the entries stays alive, unlike {@link #build()} which keeps them in the builder as well.
+     *
+     * @return an immutable map of the added entries
+     */
+    public ImmutableMap<K, V> buildImmutable() {
+        return ImmutableMap.copyOf(map);
+    }
+
     public Properties toProperties() {
         final Properties props = new Properties();
         props.putAll(map);
@@ -54,7 +80,27 @@ public class MapBuilder<K, V> extends HashMap<K, V> {
         return createMap(data, keyMapper, (v1, v2) -> v2);
     }
 
+    /**
+     * Maps the data by key with a parallel stream, for large lists.
+     * Every worker maps its own chunk before the partial maps are merged in encounter order,
+     * so the merge function sees the values in the order of the list, as with {@link #toMap(List, Function, BinaryOperator)}.
+     *
+     * @param data          the data to map
+     * @param keyMapper     a thread-safe function returning the key of a value
+     * @param mergeFunction a function merging the values of the same key
+     * @param <K>           the type of keys
+     * @param <V>           the type of values
+     * @return a map of the values by key
+     */
+    public static <K, V> Map<K, V> parallelToMap(List<V> data, Function<V, K> keyMapper, BinaryOperator<V> mergeFunction) {
+        return data.parallelStream().collect(Collectors.toMap(keyMapper, Function.identity(), mergeFunction, HashMap::new));
+    }
+
+    public static <K, V> Map<K, V> parallelToMap(List<V> data, Function<V, K> keyMapper) {
+        return parallelToMap(data, keyMapper, (v1, v2) -> v2);
+    }
+
     private static <K, V> Map<K, V> createMap(List<V> data, Function<V, K> keyMapper, BinaryOperator<V> mergeFunction) {
-        return data.stream().collect(Collectors.toMap(keyMapper, Function.identity(), mergeFunction, HashMap::new));
+        return data.stream().collect(Collectors.toMap(keyMapper, Function.identity(), mergeFunction, () -> HashMap.newHashMap(data.size())));
     }
 }
@@ -0,0 +1,293 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/***
+ * An {@link IndexedGroupingList} grouping its items by several fields at once, without building a composite key object per item.
+ * The values returned by the field extractors are hashed and compared in place, and a key holding the values of the fields
+ * is only materialized once per group, by the query methods returning maps.
+ * A field read through a {@link Function} is only allocation-free when its getter returns a stored reference, a primitive field
+ * being boxed on every read, so primitive fields are declared with {@link KeyField#ofLong}, {@link KeyField#ofInt} or
+ * {@link KeyField#ofDouble} to be hashed and compared without boxing.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     CompositeGroupingList&lt;Trade&gt; trades = CompositeGroupingList.create(fetchedTrades, Trade::getBook, Trade::getSecurityId, Trade::getTradeDate);
+ *     Map&lt;List&lt;Object&gt;, List&lt;Trade&gt;&gt; duplicates = trades.duplicateToMap();
+ *     CompositeGroupingList&lt;Trade&gt; byAccount = CompositeGroupingList.create(fetchedTrades, KeyField.of(Trade::getBook), KeyField.ofLong(Trade::getAccountId));
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <E> the type of elements in the list
+ */
+public class CompositeGroupingList<E> extends IndexedGroupingList<List<Object>, E> {
+
+    private final List<KeyField<E>> fields;
+
+    private CompositeGroupingList(List<E> items, List<KeyField<E>> fields) {
+        super(items);
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field extractor must be provided!");
+        }
+        this.fields = List.copyOf(fields);
+    }
+
+    /***
+     * Creates a new CompositeGroupingList with the specified items and field extractors.
+     *
+     * @param items           the initial items to be added to the list
+     * @param fieldExtractors the functions returning the fields composing the key of each item
+     * @param <V>             the type of elements in the list
+     * @return a new CompositeGroupingList instance
+     */
+    @SafeVarargs
+    public static <V> CompositeGroupingList<V> create(List<V> items, Function<V, ?>... fieldExtractors) {
+        return new CompositeGroupingList<>(List.copyOf(items), Arrays.stream(fieldExtractors).map(KeyField::of).toList());
+    }
+
+    /***
+     * Creates a new CompositeGroupingList with the specified items and key fields, the primitive fields being read without boxing.
+     *
+     * @param items  the initial items to be added to the list
+     * @param fields the fields composing the key of each item
+     * @param <V>    the type of elements in the list
+     * @return a new CompositeGroupingList instance
+     */
+    @SafeVarargs
+    public static <V> CompositeGroupingList<V> create(List<V> items, KeyField<V>... fields) {
+        return new CompositeGroupingList<>(List.copyOf(items), Arrays.asList(fields));
+    }
+
+    /***
+     * Creates an empty CompositeGroupingList with the specified field extractors.
+     *
+     * @param fieldExtractors the functions returning the fields composing the key of each item
+     * @param <V>             the type of elements in the list
+     * @return a new empty CompositeGroupingList instance
+     */
+    @SafeVarargs
+    public static <V> CompositeGroupingList<V> create(Function<V, ?>... fieldExtractors) {
+        return new CompositeGroupingList<>(new ArrayList<>(), Arrays.stream(fieldExtractors).map(KeyField::of).toList());
+    }
+
+    /***
+     * Creates an empty CompositeGroupingList with the specified key fields, the primitive fields being read without boxing.
+     *
+     * @param fields the fields composing the key of each item
+     * @param <V>    the type of elements in the list
+     * @return a new empty CompositeGroupingList instance
+     */
+    @SafeVarargs
+    public static <V> CompositeGroupingList<V> create(KeyField<V>... fields) {
+        return new CompositeGroupingList<>(new ArrayList<>(), Arrays.asList(fields));
+    }
+
+    /***
+     * Retrieves the items whose fields have the provided values, in the order of the field extractors.
+     *
+     * @param fieldValues the values of the fields composing the key, boxed for the primitive fields
+     * @return the items having the key in list order, or an empty list if no item has this key
+     */
+    public List<E> itemsOf(Object... fieldValues) {
+        if (fieldValues.length != fields.size()) {
+            throw new IllegalArgumentException("Expected " + fields.size() + " field values!");
+        }
+        int hash = 1;
+        for (final Object fieldValue : fieldValues) {
+            hash = 31 * hash + Objects.hashCode(fieldValue);
+        }
+        return itemsOfKey(GroupIndex.spread(hash), item -> {
+            for (int i = 0; i < fieldValues.length; i++) {
+                if (!fields.get(i).hasValue(item, fieldValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    GroupIndex buildIndex() {
+        return new GroupIndex(size(), new GroupIndex.KeyAccess() {
+            @Override
+            public int hash(int item) {
+                return CompositeGroupingList.this.hash(get(item));
+            }
+
+            @Override
+            public boolean sameKey(int item, int otherItem) {
+                return CompositeGroupingList.this.sameKey(get(item), get(otherItem));
+            }
+        });
+    }
+
+    private int hash(E item) {
+        // Same combination as List.hashCode, so the hash of a materialized key matches the hash computed in place
+        int hash = 1;
+        for (final KeyField<E> field : fields) {
+            hash = 31 * hash + field.hash(item);
+        }
+        return GroupIndex.spread(hash);
+    }
+
+    private boolean sameKey(E item, E otherItem) {
+        for (final KeyField<E> field : fields) {
+            if (!field.sameValue(item, otherItem)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    List<Object> keyOf(GroupIndex groups, int group) {
+        final E item = get(groups.firstMember(group));
+        final Object[] fieldValues = new Object[fields.size()];
+        for (int i = 0; i < fieldValues.length; i++) {
+            fieldValues[i] = fields.get(i).value(item);
+        }
+        return Collections.unmodifiableList(Arrays.asList(fieldValues));
+    }
+
+    /***
+     * A field composing the key of the items, hashed and compared in place.
+     * The hash of a field is the hash code of its boxed value and two values are the same when their boxed values are equal,
+     * so the materialized keys hash and compare as the values computed in place.
+     *
+     * @param <E> the type of the items
+     */
+    public abstract static class KeyField<E> {
+
+        private KeyField() {
+        }
+
+        /***
+         * @param extractor the function returning the value of the field
+         * @param <E>       the type of the items
+         * @return a field read as an object, boxed on every read if the getter returns a primitive
+         */
+        public static <E> KeyField<E> of(Function<E, ?> extractor) {
+            return new KeyField<>() {
+                @Override
+                int hash(E item) {
+                    return Objects.hashCode(extractor.apply(item));
+                }
+
+                @Override
+                boolean sameValue(E item, E otherItem) {
+                    return Objects.equals(extractor.apply(item), extractor.apply(otherItem));
+                }
+
+                @Override
+                Object value(E item) {
+                    return extractor.apply(item);
+                }
+            };
+        }
+
+        /***
+         * @param extractor the function returning the value of the long field
+         * @param <E>       the type of the items
+         * @return a long field read without boxing
+         */
+        public static <E> KeyField<E> ofLong(ToLongFunction<E> extractor) {
+            return new KeyField<>() {
+                @Override
+                int hash(E item) {
+                    return Long.hashCode(extractor.applyAsLong(item));
+                }
+
+                @Override
+                boolean sameValue(E item, E otherItem) {
+                    return extractor.applyAsLong(item) == extractor.applyAsLong(otherItem);
+                }
+
+                @Override
+                boolean hasValue(E item, Object value) {
+                    return value instanceof Long longValue && longValue == extractor.applyAsLong(item);
+                }
+
+                @Override
+                Object value(E item) {
+                    return extractor.applyAsLong(item);
+                }
+            };
+        }
+
+        /***
+         * @param extractor the function returning the value of the int field
+         * @param <E>       the type of the items
+         * @return an int field read without boxing
+         */
+        public static <E> KeyField<E> ofInt(ToIntFunction<E> extractor) {
+            return new KeyField<>() {
+                @Override
+                int hash(E item) {
+                    return extractor.applyAsInt(item);
+                }
+
+                @Override
+                boolean sameValue(E item, E otherItem) {
+                    return extractor.applyAsInt(item) == extractor.applyAsInt(otherItem);
+                }
+
+                @Override
+                boolean hasValue(E item, Object value) {
+                    return value instanceof Integer intValue && intValue == extractor.applyAsInt(item);
+                }
+
+                @Override
+                Object value(E item) {
+                    return extractor.applyAsInt(item);
+                }
+            };
+        }
+
+        /***
+         * @param extractor the function returning the value of the double field
+         * @param <E>       the type of the items
+         * @return a double field read without boxing, compared as {@link Double#equals(Object)} does
+         */
+        public static <E> KeyField<E> ofDouble(ToDoubleFunction<E> extractor) {
+            return new KeyField<>() {
+                @Override
+                int hash(E item) {
+                    return Double.hashCode(extractor.applyAsDouble(item));
+                }
+
+                @Override
+                boolean sameValue(E item, E otherItem) {
+                    return Double.doubleToLongBits(extractor.applyAsDouble(item)) == Double.doubleToLongBits(extractor.applyAsDouble(otherItem));
+                }
+
+                @Override
+                boolean hasValue(E item, Object value) {
+                    return value instanceof Double doubleValue && Double.doubleToLongBits(doubleValue) == Double.doubleToLongBits(extractor.applyAsDouble(item));
+                }
+
+                @Override
+                Object value(E item) {
+                    return extractor.applyAsDouble(item);
+                }
+            };
+        }
+
+        abstract int hash(E item);
+
+        abstract boolean sameValue(E item, E otherItem);
+
+        abstract Object value(E item);
+
+        boolean hasValue(E item, Object value) {
+            return Objects.equals(value(item), value);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ia.common.utilities.helper.collection;
+
+import lombok.Getter;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/***
+ * A thread-safe collection grouping its items by key as they are added, so several producers can fill it concurrently,
+ * such as the slice consumers of a parallel fetch, without a grouping pass once the ingestion is over.
+ * The groups are held in a {@link ConcurrentHashMap}, which locks a single bin when a new key is inserted, and every group is
+ * guarded by its own monitor, so producers only contend when they add items of the same key.
+ * The numbers of unique and duplicate groups are counted under the monitor of the group as it grows, so {@link #hasDuplicates()} and
+ * {@link #hasUniques()} are O(1) and reflect every add which has returned, an add still in progress being possibly seen or not.
+ * The queries offer the semantics of {@link GroupingArrayList}; they can run during the ingestion, in which case every group is a consistent
+ * snapshot but the groups may not reflect the same instant. Within a group, the items keep the order in which they were added.
+ * Items cannot be removed and null keys are not supported.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     ConcurrentGroupingCollection&lt;String, Trade&gt; trades = ConcurrentGroupingCollection.create(Trade::getReference);
+ *     sliceDataFetcher.fetch(options, dataFetcher, page -&gt; trades.addAll(page.getItems()));
+ *     List&lt;Trade&gt; duplicates = trades.duplicatesToList();
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <K> the type of keys used for grouping
+ * @param <E> the type of elements in the collection
+ */
+public class ConcurrentGroupingCollection<K, E> extends AbstractCollection<E> {
+
+    @Getter
+    private final Function<E, K> keyProvider;
+
+    private final Map<K, List<E>> groups = new ConcurrentHashMap<>();
+    private final LongAdder size = new LongAdder();
+    // Updated under the monitor of the group, so a group is never counted as unique after it has been counted as duplicate
+    private final AtomicLong uniqueGroups = new AtomicLong();
+    private final AtomicLong duplicateGroups = new AtomicLong();
+
+    private ConcurrentGroupingCollection(Function<E, K> keyProvider) {
+        this.keyProvider = keyProvider;
+    }
+
+    /***
+     * Creates an empty ConcurrentGroupingCollection with the specified key provider function.
+     *
+     * @param keyProvider a thread-safe function that provides the key for each item
+     * @param <U>         the type of keys used for grouping
+     * @param <V>         the type of elements in the collection
+     * @return a new empty ConcurrentGroupingCollection instance
+     */
+    public static <U, V> ConcurrentGroupingCollection<U, V> create(Function<V, U> keyProvider) {
+        return new ConcurrentGroupingCollection<>(keyProvider);
+    }
+
+    @Override
+    public boolean add(E item) {
+        final List<E> group = groups.computeIfAbsent(keyProvider.apply(item), key -> new ArrayList<>(1));
+        synchronized (group) {
+            group.add(item);
+            if (group.size() == 1) {
+                uniqueGroups.incrementAndGet();
+            } else if (group.size() == 2) {
+                duplicateGroups.incrementAndGet();
+                uniqueGroups.decrementAndGet();
+            }
+        }
+        size.increment();
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> items) {
+        items.forEach(this::add);
+        return !items.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /***
+     * @return an iterator over snapshots of the groups, which does not support removal
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return groups.values().stream().map(this::snapshot).flatMap(List::stream).iterator();
+    }
+
+    /***
+     * Groups duplicate items in the collection based on the key provider function.
+     *
+     * @return a map where each key maps to a list of duplicate items
+     */
+    public Map<K, List<E>> duplicateToMap() {
+        final Map<K, List<E>> duplicates = new HashMap<>();
+        groups.forEach((key, group) -> {
+            final List<E> items = snapshot(group);
+            if (items.size() > 1) {
+                duplicates.put(key, items);
+            }
+        });
+        return duplicates;
+    }
+
+    /***
+     * Retrieves a list of all duplicate items in the collection based on the key provider function.
+     *
+     * @return a list of duplicate items
+     */
+    public List<E> duplicatesToList() {
+        return duplicateToMap().values().stream().flatMap(List::stream).toList();
+    }
+
+    /***
+     * Retrieves a list of all unique items in the collection based on the key provider function.
+     *
+     * @return a list of unique items
+     */
+    public List<E> uniquesToList() {
+        return groups.values().stream().map(this::snapshot).filter(items -> items.size() == 1).map(List::getFirst).toList();
+    }
+
+    /***
+     * Groups all items in the collection based on the key provider function.
+     *
+     * @return a map where each key maps to a list of items
+     */
+    public Map<K, List<E>> itemByKey() {
+        final Map<K, List<E>> itemByKey = HashMap.newHashMap(groups.size());
+        groups.forEach((key, group) -> itemByKey.put(key, snapshot(group)));
+        return itemByKey;
+    }
+
+    /***
+     * Creates a map where each key maps to a single item, merging duplicates using the provided merge function.
+     *
+     * @param mergeFunction a function to merge duplicate items
+     * @return a map where each key maps to a single item
+     */
+    public Map<K, E> singleItemByKey(BinaryOperator<E> mergeFunction) {
+        final Map<K, E> singleItems = HashMap.newHashMap(groups.size());
+        groups.forEach((key, group) -> singleItems.put(key, snapshot(group).stream().reduce(mergeFunction).orElseThrow()));
+        return singleItems;
+    }
+
+    /***
+     * Retrieves a list of single items, merging duplicates using the provided merge function.
+     *
+     * @param mergeFunction a function to merge duplicate items
+     * @return a list of single items
+     */
+    public List<E> singleItemToList(BinaryOperator<E> mergeFunction) {
+        return new ArrayList<>(singleItemByKey(mergeFunction).values());
+    }
+
+    /***
+     * Checks if the collection contains any duplicate items based on the key provider function.
+     *
+     * @return true if there are duplicate items, false otherwise
+     */
+    public boolean hasDuplicates() {
+        return duplicateGroups.get() > 0;
+    }
+
+    /***
+     * Checks if the collection contains any unique items based on the key provider function.
+     *
+     * @return true if there are unique items, false otherwise
+     */
+    public boolean hasUniques() {
+        return uniqueGroups.get() > 0;
+    }
+
+    private List<E> snapshot(List<E> group) {
+        synchronized (group) {
+            // Null items are allowed when the key provider accepts them, which List.copyOf rejects
+            return new ArrayList<>(group);
+        }
+    }
+}
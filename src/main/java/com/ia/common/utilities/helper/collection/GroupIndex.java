@@ -0,0 +1,267 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+
+/***
+ * A group index over the items of a list, built without materializing any key object.
+ * Every group is assigned an id by an open-addressing hash table with linear probing.
+ * Primitive keys are stored in the table and compared directly, so the key of an item is read once while grouping.
+ * Composite keys are only reached through a {@link KeyAccess} hashing an item and comparing the keys of two items in place,
+ * every group being represented by its first item.
+ * The items of every group are then laid out contiguously by their list index in a single array,
+ * so the whole index costs two ints per item and a few ints per group, instead of a map entry, a key and a list per group.
+ *
+ * @author Martin Blaise Signe
+ */
+final class GroupIndex {
+
+    /***
+     * Accesses the composite keys of the items of the list by their index.
+     */
+    interface KeyAccess {
+
+        /***
+         * @param item the index of the item
+         * @return the hash of the key of the item, consistent with {@link #sameKey(int, int)}
+         */
+        int hash(int item);
+
+        /***
+         * @param item      the index of the item
+         * @param otherItem the index of the other item
+         * @return true if both items have the same key
+         */
+        boolean sameKey(int item, int otherItem);
+    }
+
+    private static final int FREE_SLOT = -1;
+
+    private int[] slots;
+    // The keys of the groups for primitive keys, null for composite keys
+    private long[] groupKeys;
+    // The hashes and first items of the groups for composite keys, null for primitive keys
+    private int[] groupHashes;
+    private int[] groupRepresentatives;
+    private int[] groupSizes;
+    private int groupCount;
+    private int[] groupOffsets;
+    private int[] members;
+    private int uniqueGroups;
+
+    /***
+     * Groups the items of a list by a primitive key.
+     *
+     * @param size the number of items of the list
+     * @param keys a function returning the key of an item from its index
+     */
+    GroupIndex(int size, IntToLongFunction keys) {
+        initialize(size);
+        groupKeys = new long[groupSizes.length];
+        final int[] groupOf = new int[size];
+        for (int item = 0; item < size; item++) {
+            final int group = groupOfKey(keys.applyAsLong(item));
+            groupSizes[group]++;
+            groupOf[item] = group;
+        }
+        layOut(groupOf);
+    }
+
+    /***
+     * Groups the items of a list by a composite key.
+     *
+     * @param size the number of items of the list
+     * @param keys the access to the keys of the items
+     */
+    GroupIndex(int size, KeyAccess keys) {
+        initialize(size);
+        groupHashes = new int[groupSizes.length];
+        groupRepresentatives = new int[groupSizes.length];
+        final int[] groupOf = new int[size];
+        for (int item = 0; item < size; item++) {
+            final int group = groupOfItem(item, keys);
+            groupSizes[group]++;
+            groupOf[item] = group;
+        }
+        groupRepresentatives = null;
+        layOut(groupOf);
+    }
+
+    int groupCount() {
+        return groupCount;
+    }
+
+    int uniqueGroups() {
+        return uniqueGroups;
+    }
+
+    int duplicateGroups() {
+        return groupCount - uniqueGroups;
+    }
+
+    /***
+     * @param group the group id
+     * @return the primitive key of the group
+     */
+    long key(int group) {
+        return groupKeys[group];
+    }
+
+    int size(int group) {
+        return groupOffsets[group + 1] - groupOffsets[group];
+    }
+
+    /***
+     * Looks the group of a primitive key up.
+     *
+     * @param key the key to look up
+     * @return the group id of the key, or -1 if no item has this key
+     */
+    int find(long key) {
+        for (int slot = spread(key) & (slots.length - 1); ; slot = (slot + 1) & (slots.length - 1)) {
+            final int group = slots[slot];
+            if (group == FREE_SLOT || groupKeys[group] == key) {
+                return group;
+            }
+        }
+    }
+
+    /***
+     * Looks the group of a composite key up without an item of the list, the caller comparing its key with the key of the first item of a candidate group.
+     *
+     * @param hash               the hash of the key, consistent with {@link KeyAccess#hash(int)}
+     * @param matchesFirstMember a predicate testing whether the first item of a candidate group has the key
+     * @return the group id of the key, or -1 if no item has this key
+     */
+    int find(int hash, IntPredicate matchesFirstMember) {
+        for (int slot = hash & (slots.length - 1); ; slot = (slot + 1) & (slots.length - 1)) {
+            final int group = slots[slot];
+            if (group == FREE_SLOT || groupHashes[group] == hash && matchesFirstMember.test(firstMember(group))) {
+                return group;
+            }
+        }
+    }
+
+    /***
+     * Hands the list index of every item of the group to the consumer, in list order.
+     *
+     * @param group    the group id
+     * @param consumer the consumer of the item indexes
+     */
+    void forEachMember(int group, IntConsumer consumer) {
+        for (int i = groupOffsets[group]; i < groupOffsets[group + 1]; i++) {
+            consumer.accept(members[i]);
+        }
+    }
+
+    int firstMember(int group) {
+        return members[groupOffsets[group]];
+    }
+
+    /***
+     * Spreads a hash code so that sequential keys do not cluster in the table, using the Murmur3 finalizer.
+     *
+     * @param hash the hash to spread
+     * @return the spread hash
+     */
+    static int spread(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    private void initialize(int size) {
+        slots = new int[tableCapacity(Math.max(16, size / 4))];
+        Arrays.fill(slots, FREE_SLOT);
+        groupSizes = new int[Math.max(16, size / 8)];
+    }
+
+    private int groupOfKey(long key) {
+        int slot = spread(key) & (slots.length - 1);
+        while (slots[slot] != FREE_SLOT) {
+            if (groupKeys[slots[slot]] == key) {
+                return slots[slot];
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        final int group = newGroup(slot);
+        groupKeys[group] = key;
+        return group;
+    }
+
+    private int groupOfItem(int item, KeyAccess keys) {
+        final int hash = keys.hash(item);
+        int slot = hash & (slots.length - 1);
+        while (slots[slot] != FREE_SLOT) {
+            final int candidate = slots[slot];
+            if (groupHashes[candidate] == hash && keys.sameKey(item, groupRepresentatives[candidate])) {
+                return candidate;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        final int group = newGroup(slot);
+        groupHashes[group] = hash;
+        groupRepresentatives[group] = item;
+        return group;
+    }
+
+    private int newGroup(int slot) {
+        final int group = groupCount++;
+        if (group == groupSizes.length) {
+            groupSizes = Arrays.copyOf(groupSizes, group * 2);
+            if (groupKeys != null) {
+                groupKeys = Arrays.copyOf(groupKeys, group * 2);
+            } else {
+                groupHashes = Arrays.copyOf(groupHashes, group * 2);
+                groupRepresentatives = Arrays.copyOf(groupRepresentatives, group * 2);
+            }
+        }
+        slots[slot] = group;
+        // Keep the load factor at most one half so the probe sequences stay short
+        if (groupCount * 2 > slots.length) {
+            rehash();
+        }
+        return group;
+    }
+
+    /***
+     * Lays the items of every group out contiguously, in list order.
+     */
+    private void layOut(int[] groupOf) {
+        groupOffsets = new int[groupCount + 1];
+        int uniques = 0;
+        for (int group = 0; group < groupCount; group++) {
+            groupOffsets[group + 1] = groupOffsets[group] + groupSizes[group];
+            uniques += groupSizes[group] == 1 ? 1 : 0;
+        }
+        uniqueGroups = uniques;
+        final int[] cursors = Arrays.copyOf(groupOffsets, groupCount);
+        members = new int[groupOf.length];
+        for (int item = 0; item < groupOf.length; item++) {
+            members[cursors[groupOf[item]]++] = item;
+        }
+        groupSizes = null;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, FREE_SLOT);
+        for (int group = 0; group < groupCount; group++) {
+            final int hash = groupKeys != null ? spread(groupKeys[group]) : groupHashes[group];
+            int slot = hash & (slots.length - 1);
+            while (slots[slot] != FREE_SLOT) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = group;
+        }
+    }
+
+    private static int tableCapacity(int expectedGroups) {
+        return Integer.highestOneBit(expectedGroups * 2 - 1) << 1;
+    }
+}
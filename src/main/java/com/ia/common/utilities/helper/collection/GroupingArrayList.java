@@ -2,20 +2,27 @@ package com.ia.common.utilities.helper.collection;
 
 import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * An ArrayList with grouping and filtering capabilities based on a key provider function.
+ * The items are grouped by key in an index built on the first query and shared by every query method.
+ * The index is then maintained incrementally by {@link #add(Object)}, {@link #addAll(Collection)}, {@link #remove(int)},
+ * {@link #remove(Object)} and {@link #clear()}, so a query costs at most the size of its result instead of a full regrouping.
+ * Any other modification, such as an insertion at an index, a bulk removal, a sort or a new key provider,
+ * marks the index as stale and it is rebuilt by the next query. Items replaced through a sub list are not tracked.
+ * Lists holding at least {@code parallelThreshold} items are regrouped by a parallel stream, every worker grouping its own chunk
+ * before the partial groups are merged in encounter order, so the items of a group keep the order of the list.
  *
  * @author Martin Blaise Signe
  * @param <K> the type of keys used for grouping
@@ -23,16 +30,29 @@ import java.util.stream.Stream;
  */
 public class GroupingArrayList<K, E> extends ArrayList<E> {
 
-    private final Predicate<List<E>> multiplePredicate = list -> list.size() > 1;
-    private final Predicate<List<E>> singlePredicate = list -> list.size() == 1;
+    /***
+     * Default number of items from which the list is regrouped in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
 
     @Getter
-    @Setter
     private Function<E, K> keyProvider;
 
-    private GroupingArrayList(List<E> items, Function<E, K> keyProvider) {
+    @Getter
+    private final int parallelThreshold;
+
+    private Map<K, List<E>> groups;
+    private Set<K> uniqueKeys;
+    private Set<K> duplicateKeys;
+    private int indexedModCount;
+
+    private GroupingArrayList(List<E> items, Function<E, K> keyProvider, int parallelThreshold) {
         super(items);
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must not be less than one!");
+        }
         this.keyProvider = keyProvider;
+        this.parallelThreshold = parallelThreshold;
     }
 
     /***
@@ -45,7 +65,22 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a new GroupingArrayList instance
      */
     public static <U, V> GroupingArrayList<U, V> create(List<V> items, Function<V, U> keyProvider) {
-        return new GroupingArrayList<>(List.copyOf(items), keyProvider);
+        return create(items, keyProvider, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /***
+     * Creates a new GroupingArrayList with the specified items and key provider function, grouped in parallel from the specified size.
+     * The key provider must be thread-safe when the list is grouped in parallel.
+     *
+     * @param items             the initial items to be added to the list
+     * @param keyProvider       a function that provides the key for each item
+     * @param parallelThreshold the number of items from which the list is grouped in parallel, {@link Integer#MAX_VALUE} to always group sequentially
+     * @param <U>               the type of keys used for grouping
+     * @param <V>               the type of elements in the list
+     * @return a new GroupingArrayList instance
+     */
+    public static <U, V> GroupingArrayList<U, V> create(List<V> items, Function<V, U> keyProvider, int parallelThreshold) {
+        return new GroupingArrayList<>(List.copyOf(items), keyProvider, parallelThreshold);
     }
 
     /***
@@ -57,7 +92,17 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a new empty GroupingArrayList instance
      */
     public static <U, V> GroupingArrayList<U, V> create(Function<V, U> keyProvider) {
-        return new GroupingArrayList<>(new ArrayList<>(), keyProvider);
+        return new GroupingArrayList<>(new ArrayList<>(), keyProvider, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /***
+     * Replaces the key provider function, the items being regrouped by the next query.
+     *
+     * @param keyProvider a function that provides the key for each item
+     */
+    public void setKeyProvider(Function<E, K> keyProvider) {
+        this.keyProvider = keyProvider;
+        this.groups = null;
     }
 
     /***
@@ -66,7 +111,11 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a map where each key maps to a list of duplicate items
      */
     public Map<K, List<E>> duplicateToMap() {
-        return getBranch(multiplePredicate).stream().collect(Collectors.groupingBy(keyProvider));
+        index();
+        // The groups are copied, so the result does not change with the later modifications of the list
+        final Map<K, List<E>> duplicates = HashMap.newHashMap(duplicateKeys.size());
+        duplicateKeys.forEach(key -> duplicates.put(key, new ArrayList<>(groups.get(key))));
+        return duplicates;
     }
 
     /***
@@ -75,7 +124,8 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a list of duplicate items
      */
     public List<E> duplicatesToList() {
-        return duplicateToMap().values().stream().flatMap(List::stream).toList();
+        index();
+        return duplicateKeys.stream().map(groups::get).flatMap(List::stream).toList();
     }
 
     /***
@@ -84,7 +134,8 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a list of unique items
      */
     public List<E> uniquesToList() {
-        return getBranch(singlePredicate);
+        index();
+        return uniqueKeys.stream().map(key -> groups.get(key).getFirst()).toList();
     }
 
     /***
@@ -93,7 +144,10 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return an immutable map where each key maps to a list of items
      */
     public Map<K, List<E>> itemByKey() {
-        return ImmutableMap.copyOf(this.stream().collect(Collectors.groupingBy(keyProvider)));
+        index();
+        final ImmutableMap.Builder<K, List<E>> itemByKey = ImmutableMap.builderWithExpectedSize(groups.size());
+        groups.forEach((key, items) -> itemByKey.put(key, new ArrayList<>(items)));
+        return itemByKey.build();
     }
 
     /***
@@ -103,7 +157,14 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return a map where each key maps to a single item
      */
     public Map<K, E> singleItemByKey(BinaryOperator<E> mergeFunction) {
-        return this.stream().collect(Collectors.toMap(keyProvider, Function.identity(), mergeFunction, HashMap::new));
+        index();
+        if (size() >= parallelThreshold) {
+            return groups.entrySet().parallelStream().collect(Collectors.toMap(Map.Entry::getKey,
+                    entry -> entry.getValue().stream().reduce(mergeFunction).orElseThrow(), (first, second) -> first, HashMap::new));
+        }
+        final Map<K, E> singleItems = HashMap.newHashMap(groups.size());
+        groups.forEach((key, items) -> singleItems.put(key, items.stream().reduce(mergeFunction).orElseThrow()));
+        return singleItems;
     }
 
     /***
@@ -122,7 +183,8 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return true if there are duplicate items, false otherwise
      */
     public boolean hasDuplicates() {
-        return match(multiplePredicate);
+        index();
+        return !duplicateKeys.isEmpty();
     }
 
     /***
@@ -131,19 +193,120 @@ public class GroupingArrayList<K, E> extends ArrayList<E> {
      * @return true if there are unique items, false otherwise
      */
     public boolean hasUniques() {
-        return match(singlePredicate);
+        index();
+        return !uniqueKeys.isEmpty();
     }
 
-    private List<E> getBranch(Predicate<List<E>> predicate) {
-        return getStreamFromMap().filter(predicate).flatMap(List::stream).toList();
+    @Override
+    public boolean add(E item) {
+        final boolean indexed = isIndexed();
+        super.add(item);
+        if (indexed) {
+            addToIndex(item);
+            indexedModCount = modCount;
+        }
+        return true;
     }
 
-    private boolean match(Predicate<List<E>> predicate) {
-        return getStreamFromMap().anyMatch(predicate);
+    @Override
+    public boolean addAll(Collection<? extends E> items) {
+        final boolean indexed = isIndexed();
+        final boolean modified = super.addAll(items);
+        if (indexed) {
+            items.forEach(this::addToIndex);
+            indexedModCount = modCount;
+        }
+        return modified;
     }
 
+    @Override
+    public E remove(int index) {
+        final boolean indexed = isIndexed();
+        final E removed = super.remove(index);
+        if (indexed) {
+            removeFromIndex(removed);
+            indexedModCount = modCount;
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object item) {
+        final int index = indexOf(item);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public E set(int index, E item) {
+        // The position of the item within its new group is unknown, so the index is rebuilt by the next query
+        groups = null;
+        return super.set(index, item);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        groups = null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public GroupingArrayList<K, E> clone() {
+        final var clone = (GroupingArrayList<K, E>) super.clone();
+        clone.groups = null;
+        return clone;
+    }
+
+    private boolean isIndexed() {
+        return groups != null && indexedModCount == modCount;
+    }
+
+    /***
+     * Builds the group index when it is missing or stale.
+     */
+    private void index() {
+        if (isIndexed()) {
+            return;
+        }
+        uniqueKeys = new HashSet<>();
+        duplicateKeys = new HashSet<>();
+        if (size() < parallelThreshold) {
+            groups = HashMap.newHashMap(size());
+            forEach(this::addToIndex);
+        } else {
+            // The collector is not concurrent, so every worker groups its chunk and the chunks are merged in encounter order
+            groups = parallelStream().collect(Collectors.groupingBy(keyProvider, HashMap::new, Collectors.toCollection(ArrayList::new)));
+            groups.forEach((key, group) -> (group.size() == 1 ? uniqueKeys : duplicateKeys).add(key));
+        }
+        indexedModCount = modCount;
+    }
+
+    private void addToIndex(E item) {
+        final K key = keyProvider.apply(item);
+        final List<E> group = groups.computeIfAbsent(key, k -> new ArrayList<>(1));
+        group.add(item);
+        if (group.size() == 1) {
+            uniqueKeys.add(key);
+        } else if (group.size() == 2) {
+            uniqueKeys.remove(key);
+            duplicateKeys.add(key);
+        }
+    }
 
-    private Stream<List<E>> getStreamFromMap() {
-        return itemByKey().values().stream();
+    private void removeFromIndex(E item) {
+        final K key = keyProvider.apply(item);
+        final List<E> group = groups.get(key);
+        group.remove(item);
+        if (group.isEmpty()) {
+            groups.remove(key);
+            uniqueKeys.remove(key);
+        } else if (group.size() == 1) {
+            duplicateKeys.remove(key);
+            uniqueKeys.add(key);
+        }
     }
 }
@@ -0,0 +1,204 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+
+/***
+ * An ArrayList with the grouping capabilities of {@link GroupingArrayList} whose group index does not hold a key object per item.
+ * The items are grouped by a {@link GroupIndex} built by the subclasses on the first query and shared by every query method.
+ * Any modification of the list marks the index as stale and it is rebuilt by the next query.
+ * A key object is only materialized per group, by the query methods returning maps.
+ *
+ * @author Martin Blaise Signe
+ * @param <K> the type of the keys returned by the maps
+ * @param <E> the type of elements in the list
+ * @see PrimitiveGroupingList
+ * @see CompositeGroupingList
+ */
+public abstract class IndexedGroupingList<K, E> extends ArrayList<E> {
+
+    private GroupIndex index;
+    private int indexedModCount;
+
+    IndexedGroupingList(List<E> items) {
+        super(items);
+    }
+
+    /***
+     * Groups duplicate items in the list based on the key provider function.
+     *
+     * @return a map where each key maps to a list of duplicate items
+     */
+    public Map<K, List<E>> duplicateToMap() {
+        final GroupIndex groups = index();
+        final Map<K, List<E>> duplicates = HashMap.newHashMap(groups.duplicateGroups());
+        for (int group = 0; group < groups.groupCount(); group++) {
+            if (groups.size(group) > 1) {
+                duplicates.put(keyOf(groups, group), itemsOf(groups, group));
+            }
+        }
+        return duplicates;
+    }
+
+    /***
+     * Retrieves a list of all duplicate items in the list based on the key provider function.
+     *
+     * @return a list of duplicate items, grouped by key
+     */
+    public List<E> duplicatesToList() {
+        final GroupIndex groups = index();
+        final List<E> duplicates = new ArrayList<>();
+        for (int group = 0; group < groups.groupCount(); group++) {
+            if (groups.size(group) > 1) {
+                groups.forEachMember(group, member -> duplicates.add(get(member)));
+            }
+        }
+        return duplicates;
+    }
+
+    /***
+     * Retrieves a list of all unique items in the list based on the key provider function.
+     *
+     * @return a list of unique items
+     */
+    public List<E> uniquesToList() {
+        final GroupIndex groups = index();
+        final List<E> uniques = new ArrayList<>(groups.uniqueGroups());
+        for (int group = 0; group < groups.groupCount(); group++) {
+            if (groups.size(group) == 1) {
+                uniques.add(get(groups.firstMember(group)));
+            }
+        }
+        return uniques;
+    }
+
+    /***
+     * Groups all items in the list based on the key provider function.
+     *
+     * @return a map where each key maps to a list of items
+     */
+    public Map<K, List<E>> itemByKey() {
+        final GroupIndex groups = index();
+        final Map<K, List<E>> itemByKey = HashMap.newHashMap(groups.groupCount());
+        for (int group = 0; group < groups.groupCount(); group++) {
+            itemByKey.put(keyOf(groups, group), itemsOf(groups, group));
+        }
+        return itemByKey;
+    }
+
+    /***
+     * Creates a map where each key maps to a single item, merging duplicates using the provided merge function.
+     *
+     * @param mergeFunction a function to merge duplicate items
+     * @return a map where each key maps to a single item
+     */
+    public Map<K, E> singleItemByKey(BinaryOperator<E> mergeFunction) {
+        final GroupIndex groups = index();
+        final Map<K, E> singleItems = HashMap.newHashMap(groups.groupCount());
+        for (int group = 0; group < groups.groupCount(); group++) {
+            singleItems.put(keyOf(groups, group), itemsOf(groups, group).stream().reduce(mergeFunction).orElseThrow());
+        }
+        return singleItems;
+    }
+
+    /***
+     * Retrieves a list of single items, merging duplicates using the provided merge function.
+     *
+     * @param mergeFunction a function to merge duplicate items
+     * @return a list of single items
+     */
+    public List<E> singleItemToList(BinaryOperator<E> mergeFunction) {
+        return new ArrayList<>(singleItemByKey(mergeFunction).values());
+    }
+
+    /***
+     * Checks if the list contains any duplicate items based on the key provider function.
+     *
+     * @return true if there are duplicate items, false otherwise
+     */
+    public boolean hasDuplicates() {
+        return index().duplicateGroups() > 0;
+    }
+
+    /***
+     * Checks if the list contains any unique items based on the key provider function.
+     *
+     * @return true if there are unique items, false otherwise
+     */
+    public boolean hasUniques() {
+        return index().uniqueGroups() > 0;
+    }
+
+    /***
+     * @return the number of distinct keys in the list
+     */
+    public int groupCount() {
+        return index().groupCount();
+    }
+
+    @Override
+    public E set(int index, E item) {
+        // Replacing an item does not change the modification count, so the index is dropped explicitly
+        this.index = null;
+        return super.set(index, item);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public IndexedGroupingList<K, E> clone() {
+        final var clone = (IndexedGroupingList<K, E>) super.clone();
+        clone.index = null;
+        return clone;
+    }
+
+    /***
+     * @param key the primitive key to look up, in an index built by primitive key
+     * @return the items having the key in list order, or an empty list if no item has this key
+     */
+    List<E> itemsOfKey(long key) {
+        final GroupIndex groups = index();
+        final int group = groups.find(key);
+        return group < 0 ? List.of() : itemsOf(groups, group);
+    }
+
+    /***
+     * @param hash        the hash of the composite key, consistent with the index
+     * @param matchesItem a predicate testing whether an item has the key
+     * @return the items having the key in list order, or an empty list if no item has this key
+     */
+    List<E> itemsOfKey(int hash, Predicate<E> matchesItem) {
+        final GroupIndex groups = index();
+        final int group = groups.find(hash, member -> matchesItem.test(get(member)));
+        return group < 0 ? List.of() : itemsOf(groups, group);
+    }
+
+    /***
+     * @return a new group index over the current items of the list
+     */
+    abstract GroupIndex buildIndex();
+
+    /***
+     * @param groups the group index
+     * @param group  the group id
+     * @return the key object of the group, only called once per group
+     */
+    abstract K keyOf(GroupIndex groups, int group);
+
+    private List<E> itemsOf(GroupIndex groups, int group) {
+        final List<E> items = new ArrayList<>(groups.size(group));
+        groups.forEachMember(group, member -> items.add(get(member)));
+        return items;
+    }
+
+    private GroupIndex index() {
+        if (index == null || indexedModCount != modCount) {
+            index = buildIndex();
+            indexedModCount = modCount;
+        }
+        return index;
+    }
+}
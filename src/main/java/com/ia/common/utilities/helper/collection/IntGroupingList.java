@@ -0,0 +1,62 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/***
+ * A {@link PrimitiveGroupingList} grouping its items by an int key, such as a numeric identifier, without boxing the keys.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     IntGroupingList&lt;Trade&gt; trades = IntGroupingList.create(fetchedTrades, Trade::getBookId);
+ *     List&lt;Trade&gt; duplicates = trades.duplicatesToList();
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <E> the type of elements in the list
+ */
+public class IntGroupingList<E> extends PrimitiveGroupingList<Integer, E> {
+
+    private IntGroupingList(List<E> items, ToIntFunction<E> keyProvider) {
+        super(items, keyProvider::applyAsInt);
+    }
+
+    /***
+     * Creates a new IntGroupingList with the specified items and key provider function.
+     *
+     * @param items       the initial items to be added to the list
+     * @param keyProvider a function that provides the key for each item
+     * @param <V>         the type of elements in the list
+     * @return a new IntGroupingList instance
+     */
+    public static <V> IntGroupingList<V> create(List<V> items, ToIntFunction<V> keyProvider) {
+        return new IntGroupingList<>(List.copyOf(items), keyProvider);
+    }
+
+    /***
+     * Creates an empty IntGroupingList with the specified key provider function.
+     *
+     * @param keyProvider a function that provides the key for each item
+     * @param <V>         the type of elements in the list
+     * @return a new empty IntGroupingList instance
+     */
+    public static <V> IntGroupingList<V> create(ToIntFunction<V> keyProvider) {
+        return new IntGroupingList<>(new ArrayList<>(), keyProvider);
+    }
+
+    /***
+     * Retrieves the items having the provided key without boxing it.
+     *
+     * @param key the key to look up
+     * @return the items having the key in list order, or an empty list if no item has this key
+     */
+    public List<E> itemsOf(int key) {
+        return itemsOfKey(key);
+    }
+
+    @Override
+    Integer boxKey(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/***
+ * A {@link PrimitiveGroupingList} grouping its items by a long key, such as a numeric identifier, without boxing the keys.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     LongGroupingList&lt;Trade&gt; trades = LongGroupingList.create(fetchedTrades, Trade::getSecurityId);
+ *     List&lt;Trade&gt; duplicates = trades.duplicatesToList();
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <E> the type of elements in the list
+ */
+public class LongGroupingList<E> extends PrimitiveGroupingList<Long, E> {
+
+    private LongGroupingList(List<E> items, ToLongFunction<E> keyProvider) {
+        super(items, keyProvider);
+    }
+
+    /***
+     * Creates a new LongGroupingList with the specified items and key provider function.
+     *
+     * @param items       the initial items to be added to the list
+     * @param keyProvider a function that provides the key for each item
+     * @param <V>         the type of elements in the list
+     * @return a new LongGroupingList instance
+     */
+    public static <V> LongGroupingList<V> create(List<V> items, ToLongFunction<V> keyProvider) {
+        return new LongGroupingList<>(List.copyOf(items), keyProvider);
+    }
+
+    /***
+     * Creates an empty LongGroupingList with the specified key provider function.
+     *
+     * @param keyProvider a function that provides the key for each item
+     * @param <V>         the type of elements in the list
+     * @return a new empty LongGroupingList instance
+     */
+    public static <V> LongGroupingList<V> create(ToLongFunction<V> keyProvider) {
+        return new LongGroupingList<>(new ArrayList<>(), keyProvider);
+    }
+
+    /***
+     * Retrieves the items having the provided key without boxing it.
+     *
+     * @param key the key to look up
+     * @return the items having the key in list order, or an empty list if no item has this key
+     */
+    public List<E> itemsOf(long key) {
+        return itemsOfKey(key);
+    }
+
+    @Override
+    Long boxKey(long key) {
+        return key;
+    }
+}
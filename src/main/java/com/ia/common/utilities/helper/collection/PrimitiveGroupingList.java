@@ -0,0 +1,38 @@
+package com.ia.common.utilities.helper.collection;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/***
+ * An {@link IndexedGroupingList} for items whose keys are primitive numbers, grouped without boxing any key.
+ * The keys are stored in the group index and compared directly, the key provider being called once per item.
+ * Keys are only boxed by the query methods returning maps.
+ *
+ * @author Martin Blaise Signe
+ * @param <K> the boxed type of the keys returned by the maps
+ * @param <E> the type of elements in the list
+ * @see LongGroupingList
+ * @see IntGroupingList
+ */
+public abstract class PrimitiveGroupingList<K, E> extends IndexedGroupingList<K, E> {
+
+    private final ToLongFunction<E> keyProvider;
+
+    PrimitiveGroupingList(List<E> items, ToLongFunction<E> keyProvider) {
+        super(items);
+        this.keyProvider = keyProvider;
+    }
+
+    @Override
+    GroupIndex buildIndex() {
+        // Primitive keys are stored in the index, so every key is read once and compared without calling the key provider again
+        return new GroupIndex(size(), item -> keyProvider.applyAsLong(get(item)));
+    }
+
+    @Override
+    K keyOf(GroupIndex groups, int group) {
+        return boxKey(groups.key(group));
+    }
+
+    abstract K boxKey(long key);
+}
@@ -0,0 +1,293 @@
+package com.ia.common.utilities.helper.collection;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.ia.common.utilities.helper.SerializerHelper;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/***
+ * Finds the duplicate keys of datasets larger than the heap, with the semantics of {@link GroupingArrayList#duplicatesToList()}
+ * and {@link GroupingArrayList#uniquesToList()}.
+ * The records are hash-partitioned by key into local temporary files, so the records sharing a key land in the same partition,
+ * and every partition is then grouped in memory on its own. The heap only needs to hold the largest partition.
+ * When the number of expected keys is provided, a first pass over the source fills two Bloom filters, the keys seen at least once
+ * and the keys seen at least twice. The records whose key has been seen once only are then known to be unique and are never spilled,
+ * so only the candidate duplicates, and the few false positives of the filter, reach the disk.
+ * The source is therefore read twice for the partitioning, and once more when the uniques are streamed.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     SpillingDuplicateDetector&lt;String, Trade&gt; detector = SpillingDuplicateDetector.&lt;String, Trade&gt;builder()
+ *             .keyProvider(Trade::getReference)
+ *             .type(new TypeReference&lt;&gt;() {})
+ *             .expectedKeys(50_000_000)
+ *             .build();
+ *     try (var groups = detector.detect(() -&gt; extractReader.lines().map(Trade::parse))) {
+ *         groups.duplicates().forEach(reconciliation::report);
+ *     }
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <K> the type of keys used for grouping
+ * @param <E> the type of the records
+ */
+@Slf4j
+@Getter
+@Builder
+public class SpillingDuplicateDetector<K, E> {
+
+    /***
+     * Default number of partitions the records are spilled to.
+     */
+    public static final int DEFAULT_PARTITIONS = 64;
+
+    /***
+     * Default false positive probability of the Bloom filters.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    /***
+     * A function that provides the key of each record, its hash code deciding the partition of the record.
+     */
+    private final Function<E, K> keyProvider;
+
+    /***
+     * The type of the records, used to read the spilled records back.
+     */
+    private final TypeReference<E> type;
+
+    /***
+     * The number of partitions, large enough for the biggest partition to fit in memory.
+     */
+    @Builder.Default
+    private final int partitions = DEFAULT_PARTITIONS;
+
+    /***
+     * The directory holding the partition files, the default temporary directory when null.
+     */
+    private final Path tempDirectory;
+
+    /***
+     * The expected number of distinct keys sizing the Bloom filters, every record is spilled without pre-filtering when zero.
+     */
+    private final long expectedKeys;
+
+    /***
+     * The false positive probability of the Bloom filters, a false positive only spills a unique record.
+     */
+    @Builder.Default
+    private final double falsePositiveProbability = DEFAULT_FALSE_POSITIVE_PROBABILITY;
+
+    private SpillingDuplicateDetector(Function<E, K> keyProvider, TypeReference<E> type, int partitions, Path tempDirectory,
+                                      long expectedKeys, double falsePositiveProbability) {
+        if (keyProvider == null || type == null) {
+            throw new IllegalArgumentException("Key provider and type must be provided!");
+        }
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must not be less than one!");
+        }
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Expected keys must not be less than zero!");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between zero and one!");
+        }
+        this.keyProvider = keyProvider;
+        this.type = type;
+        this.partitions = partitions;
+        this.tempDirectory = tempDirectory;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    /***
+     * Partitions the records of the source to temporary files.
+     *
+     * @param source a supplier returning a new stream over the records every time it is called
+     * @return the spilled groups, to be closed once consumed so the temporary files are deleted
+     */
+    public SpilledGroups<K, E> detect(Supplier<Stream<E>> source) {
+        final BloomFilter<K> repeatedKeys = expectedKeys == 0 ? null : repeatedKeys(source);
+        final Path directory = createDirectory();
+        final var spilledGroups = new SpilledGroups<>(this, source, repeatedKeys, directory);
+        final BufferedWriter[] writers = new BufferedWriter[partitions];
+        long spilledRecords = 0;
+        try (final Stream<E> records = source.get()) {
+            for (final var iterator = records.iterator(); iterator.hasNext(); ) {
+                final E record = iterator.next();
+                final K key = keyProvider.apply(record);
+                if (repeatedKeys != null && !repeatedKeys.mightContain(key)) {
+                    continue;
+                }
+                final int partition = partitionOf(key);
+                if (writers[partition] == null) {
+                    writers[partition] = Files.newBufferedWriter(spilledGroups.partitionFile(partition), StandardCharsets.UTF_8);
+                }
+                writers[partition].write(SerializerHelper.serialize(record));
+                writers[partition].newLine();
+                spilledRecords++;
+            }
+        } catch (IOException e) {
+            closeAll(writers);
+            spilledGroups.close();
+            log.error("Unable to spill the records to the partitions. directory ={}", directory, e);
+            throw new RuntimeException("Error during duplicate detection", e);
+        } catch (RuntimeException e) {
+            closeAll(writers);
+            spilledGroups.close();
+            throw e;
+        }
+        closeAll(writers);
+        log.info("Spilled records to partitions . records: {}, partitions: {}, directory: {}", spilledRecords, partitions, directory);
+        return spilledGroups;
+    }
+
+    /***
+     * Reads the source once to find the keys seen at least twice, up to the false positive probability.
+     */
+    private BloomFilter<K> repeatedKeys(Supplier<Stream<E>> source) {
+        // Equal keys have equal hash codes, so a shared hash code only adds false positives and never hides a duplicate
+        final Funnel<K> funnel = (key, sink) -> sink.putInt(Objects.hashCode(key));
+        final BloomFilter<K> seenKeys = BloomFilter.create(funnel, expectedKeys, falsePositiveProbability);
+        final BloomFilter<K> repeatedKeys = BloomFilter.create(funnel, expectedKeys, falsePositiveProbability);
+        try (final Stream<E> records = source.get()) {
+            records.map(keyProvider).forEach(key -> {
+                // put returns false when the key might have been seen already
+                if (!seenKeys.put(key)) {
+                    repeatedKeys.put(key);
+                }
+            });
+        }
+        return repeatedKeys;
+    }
+
+    private int partitionOf(K key) {
+        // Spread the hash code so partitions stay balanced when the low bits are poorly distributed
+        final int hash = key == null ? 0 : key.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+
+    private Path createDirectory() {
+        try {
+            return tempDirectory == null ? Files.createTempDirectory("duplicates") : Files.createTempDirectory(tempDirectory, "duplicates");
+        } catch (IOException e) {
+            log.error("Unable to create the partition directory. parent ={}", tempDirectory, e);
+            throw new RuntimeException("Error during duplicate detection", e);
+        }
+    }
+
+    private void closeAll(BufferedWriter[] writers) {
+        for (final BufferedWriter writer : writers) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    log.warn("Unable to close a partition file. message=[{}]", e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    /***
+     * The records of a source spilled to partition files, grouped partition by partition when streamed.
+     * Every stream loads one partition at a time, so the heap only needs to hold the largest partition.
+     *
+     * @param <K> the type of keys used for grouping
+     * @param <E> the type of the records
+     */
+    public static final class SpilledGroups<K, E> implements AutoCloseable {
+
+        private final SpillingDuplicateDetector<K, E> detector;
+        private final Supplier<Stream<E>> source;
+        private final BloomFilter<K> repeatedKeys;
+        private final Path directory;
+
+        private SpilledGroups(SpillingDuplicateDetector<K, E> detector, Supplier<Stream<E>> source, BloomFilter<K> repeatedKeys, Path directory) {
+            this.detector = detector;
+            this.source = source;
+            this.repeatedKeys = repeatedKeys;
+            this.directory = directory;
+        }
+
+        /***
+         * @return a stream over the records whose key is shared with another record, the records of a key being adjacent
+         */
+        public Stream<E> duplicates() {
+            return duplicateGroups().flatMap(List::stream);
+        }
+
+        /***
+         * @return a stream over the groups of records sharing a key, in the order of the source within a group
+         */
+        public Stream<List<E>> duplicateGroups() {
+            return groupedPartitions().flatMap(groups -> groups.duplicateToMap().values().stream());
+        }
+
+        /***
+         * Streams the records whose key is not shared with any other record. When the source has been pre-filtered,
+         * the records known to be unique are read from the source again, followed by the unique records of the partitions.
+         * Closing the returned stream closes the stream of the source, so it must be closed once consumed, for instance with try-with-resources.
+         *
+         * @return a stream over the unique records, to be closed once consumed
+         */
+        public Stream<E> uniques() {
+            final Stream<E> spilledUniques = groupedPartitions().flatMap(groups -> groups.uniquesToList().stream());
+            if (repeatedKeys == null) {
+                return spilledUniques;
+            }
+            final Stream<E> filteredUniques = source.get().filter(record -> !repeatedKeys.mightContain(detector.getKeyProvider().apply(record)));
+            return Stream.concat(filteredUniques, spilledUniques);
+        }
+
+        /***
+         * Deletes the partition files.
+         */
+        @Override
+        public void close() {
+            try (final Stream<Path> files = Files.list(directory)) {
+                for (final Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                log.warn("Unable to delete the partition directory {}. message=[{}]", directory, e.getLocalizedMessage());
+            }
+        }
+
+        private Stream<GroupingArrayList<K, E>> groupedPartitions() {
+            return IntStream.range(0, detector.getPartitions())
+                    .mapToObj(this::partitionFile)
+                    .filter(Files::exists)
+                    .map(this::read);
+        }
+
+        private GroupingArrayList<K, E> read(Path file) {
+            try (final Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                final var records = lines.map(line -> SerializerHelper.deserialize(line, detector::getType)).toList();
+                return GroupingArrayList.create(records, detector.getKeyProvider());
+            } catch (IOException e) {
+                log.error("Unable to read the partition file ={}", file, e);
+                throw new RuntimeException("Error during duplicate detection", e);
+            }
+        }
+
+        private Path partitionFile(int partition) {
+            return directory.resolve("partition-" + partition + ".jsonl");
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/***
+ * Runs slice fetches on a dedicated executor while bounding the number of slices in flight.
+ * A slice is only pulled from the provided iterator once a permit is available, and its permit is released
+ * once the slice task, including the consumption of its data, has completed, so at most {@code maxParallelism} slices are held in memory at once.
+ * When the options do not provide an executor, a virtual thread per slice is used and shut down on close.
+ * The first failing slice stops the scheduling of new slices and is rethrown once the in-flight slices are drained.
+ * When a deadline is provided, no slice is scheduled after it and the slices still in flight are cancelled,
+ * their threads being interrupted, so the run returns within the deadline.
+ *
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+final class BoundedSliceExecutor implements AutoCloseable {
+
+    private final int maxParallelism;
+    private final Semaphore permits;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Instant deadline;
+    private volatile boolean cancelled;
+
+    BoundedSliceExecutor(SliceFetchOptions options) {
+        this(options, null);
+    }
+
+    BoundedSliceExecutor(SliceFetchOptions options, Instant deadline) {
+        this.maxParallelism = options.getMaxParallelism();
+        this.permits = new Semaphore(maxParallelism);
+        this.ownedExecutor = options.getExecutor() == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.executor = Optional.ofNullable(options.getExecutor()).orElse(ownedExecutor);
+        this.deadline = deadline;
+    }
+
+    /***
+     * Runs the task for every slice provided by the iterator, the task being responsible for consuming the fetched data.
+     * The method returns once all the scheduled slices have completed, or as soon as the deadline is reached.
+     *
+     * @param slices the slices to run, pulled lazily as permits become available
+     * @param task   the task fetching and consuming a single slice, possibly invoked from several threads
+     * @param <S>    the type of the slice description
+     * @return true if every slice has completed, false if the deadline has been reached first
+     */
+    <S> boolean run(Iterator<S> slices, Consumer<S> task) {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Set<Future<?>> inFlight = ConcurrentHashMap.newKeySet();
+        try {
+            while (failure.get() == null) {
+                if (!acquire(1)) {
+                    return cancel(inFlight);
+                }
+                if (failure.get() != null || !slices.hasNext()) {
+                    permits.release();
+                    break;
+                }
+                final S slice = slices.next();
+                final FutureTask<Void> future = new FutureTask<>(() -> task.accept(slice), null) {
+                    @Override
+                    protected void done() {
+                        inFlight.remove(this);
+                        if (!isCancelled()) {
+                            try {
+                                get();
+                            } catch (ExecutionException e) {
+                                failure.compareAndSet(null, e.getCause());
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        permits.release();
+                    }
+                };
+                inFlight.add(future);
+                execute(future);
+            }
+            // Wait for the in-flight slices by reclaiming every permit
+            if (!acquire(maxParallelism)) {
+                return cancel(inFlight);
+            }
+            permits.release(maxParallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(inFlight);
+            throw new RuntimeException("Slice fetching has been interrupted", e);
+        }
+        Optional.ofNullable(failure.get()).ifPresent(this::rethrow);
+        return true;
+    }
+
+    /***
+     * Calls the provided supplier within the deadline, on the executor when a deadline is set and on the calling thread otherwise.
+     *
+     * @param supplier the supplier to call
+     * @param <R>      the type of the result
+     * @return the result of the supplier, or an empty Optional if the deadline has been reached first
+     */
+    <R> Optional<R> call(Supplier<R> supplier) {
+        if (deadline == null) {
+            return Optional.ofNullable(supplier.get());
+        }
+        final FutureTask<R> future = new FutureTask<>(supplier::get);
+        try {
+            execute(future);
+            return Optional.ofNullable(future.get(Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            log.warn("Deadline {} reached before the slice completed", deadline);
+            cancelled = true;
+            future.cancel(true);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Slice fetching has been interrupted", e);
+        }
+    }
+
+    /***
+     * Takes a permit for an additional request of a slice in flight, such as a hedged request, without waiting.
+     *
+     * @return true if a permit has been taken, to be given back with {@link #releasePermit()}
+     */
+    boolean tryAcquirePermit() {
+        return !cancelled && permits.tryAcquire();
+    }
+
+    /***
+     * Gives back a permit taken with {@link #tryAcquirePermit()}.
+     */
+    void releasePermit() {
+        permits.release();
+    }
+
+    /***
+     * Shuts the owned executor down, without waiting for the cancelled slices which may not react to the interruption.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor == null) {
+            return;
+        }
+        if (cancelled) {
+            ownedExecutor.shutdownNow();
+        } else {
+            ownedExecutor.close();
+        }
+    }
+
+    private boolean acquire(int count) throws InterruptedException {
+        if (deadline == null) {
+            permits.acquire(count);
+            return true;
+        }
+        final long remainingNanos = remainingNanos();
+        return remainingNanos > 0 && permits.tryAcquire(count, remainingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private long remainingNanos() {
+        return Duration.between(Instant.now(), deadline).toNanos();
+    }
+
+    private void execute(FutureTask<?> future) {
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.cancel(false);
+            throw e;
+        }
+    }
+
+    private boolean cancel(Set<Future<?>> inFlight) {
+        log.warn("Cancelling {} slices in flight . deadline: {}", inFlight.size(), deadline);
+        cancelled = true;
+        inFlight.forEach(future -> future.cancel(true));
+        return false;
+    }
+
+    private void rethrow(Throwable exception) {
+        log.error("Slice fetching failed. message=[{}]", exception.getLocalizedMessage(), exception);
+        if (exception instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (exception instanceof Error error) {
+            throw error;
+        }
+        throw new RuntimeException(exception.getLocalizedMessage(), exception);
+    }
+}
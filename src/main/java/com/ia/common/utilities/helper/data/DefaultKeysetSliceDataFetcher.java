@@ -0,0 +1,145 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.SliceDataFetcher.ProcessingResult;
+import com.ia.common.utilities.helper.data.SliceDataFetcher.StreamingResult;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.KeysetPageRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/***
+ * Default implementation of {@link KeysetSliceDataFetcher} that fetches data using keyset (seek) pagination.
+ * Each key range is walked page after page, the next page starting after the key of the last item of the previous one,
+ * until a page shorter than the slice size is returned. Key ranges are walked in parallel on a {@link BoundedSliceExecutor}.
+ * @see KeysetSliceDataFetcher
+ * @see KeysetPageRequest
+ * @see KeyRange
+ * @author Martin Blaise Signe
+ */
+@Component
+@Slf4j
+public class DefaultKeysetSliceDataFetcher implements KeysetSliceDataFetcher {
+
+    @Override
+    public <K, T> ProcessingResult<T> fetch(int sliceSize, Function<T, K> keyExtractor, Function<KeysetPageRequest<K>, List<T>> dataFetcher) {
+        final List<T> fetchedData = new ArrayList<>();
+        log.info("Start processing . data size: {}", sliceSize);
+        walk(KeysetPageRequest.first(KeyRange.unbounded(), sliceSize), sliceSize, keyExtractor, dataFetcher, fetchedData::addAll);
+        log.info("Completed processing . total size: {}", fetchedData.size());
+        return new ProcessingResult<>(List.copyOf(fetchedData));
+    }
+
+    @Override
+    public <K, T> ProcessingResult<T> fetch(SliceFetchOptions options, List<KeyRange<K>> ranges, Function<T, K> keyExtractor,
+                                            Function<KeysetPageRequest<K>, List<T>> dataFetcher) {
+        // A resumed run skips the ranges of the previous attempts, which the merged data would silently miss
+        if (options.isResumable()) {
+            throw new IllegalArgumentException("Resumable runs must be consumed slice by slice!");
+        }
+        // Pages of a range are fetched sequentially, so they are appended to the list of their range
+        final Map<Integer, List<T>> pagesByRange = new ConcurrentSkipListMap<>();
+        fetchRanges(options, ranges, keyExtractor, dataFetcher,
+                (rangeIndex, page) -> pagesByRange.computeIfAbsent(rangeIndex, i -> new ArrayList<>()).addAll(page));
+        final var mergedData = pagesByRange.values().stream().flatMap(Collection::stream).toList();
+        log.info("Merged fetched data . total size: {}", mergedData.size());
+        return new ProcessingResult<>(mergedData);
+    }
+
+    @Override
+    public <K, T> StreamingResult fetch(SliceFetchOptions options, List<KeyRange<K>> ranges, Function<T, K> keyExtractor,
+                                        Function<KeysetPageRequest<K>, List<T>> dataFetcher, Consumer<List<T>> sliceConsumer) {
+        return fetchRanges(options, ranges, keyExtractor, dataFetcher, (rangeIndex, page) -> sliceConsumer.accept(page));
+    }
+
+    /***
+     * Walks every key range on a {@link BoundedSliceExecutor}, handing each fetched page to the slice consumer along with the index of its range.
+     * When the options are resumable, every completed range is recorded in a {@link SliceCheckpoint} and skipped by a resumed run,
+     * along with the last key of every consumed page, so a resumed run walks a range started by a previous attempt from its last consumed key.
+     * Every page is fetched through a {@link ResilientSliceCaller} applying the retry policy and the hedging of the options.
+     * Options holding a deadline are rejected.
+     * @param options the options holding the slice size, the maximum parallelism and the executor.
+     * @param ranges the contiguous key ranges to fetch.
+     * @param keyExtractor a function returning the pagination key of an item.
+     * @param dataFetcher a function that takes a KeysetPageRequest and returns the items of the page ordered by key.
+     * @param sliceConsumer the consumer receiving the range index and each fetched page.
+     * @param <K> the type of the pagination key.
+     * @param <T> the type of data being fetched.
+     * @return a StreamingResult summarizing the fetched pages.
+     * @throws IllegalArgumentException if the options hold a deadline.
+     */
+    private <K, T> StreamingResult fetchRanges(SliceFetchOptions options, List<KeyRange<K>> ranges, Function<T, K> keyExtractor,
+                                               Function<KeysetPageRequest<K>, List<T>> dataFetcher, BiConsumer<Integer, List<T>> sliceConsumer) {
+        // The result of a keyset run holds no offset range, so the data missing at the deadline could not be reported
+        if (options.getDeadline() != null) {
+            throw new IllegalArgumentException("Deadline is only supported by offset runs with a known total size!");
+        }
+        final LongAdder fetchedItems = new LongAdder();
+        final LongAdder fetchedSlices = new LongAdder();
+
+        try (final var checkpoint = SliceCheckpoint.open(options);
+             final var executor = new BoundedSliceExecutor(options);
+             final var caller = new ResilientSliceCaller(options, executor)) {
+            final Function<KeysetPageRequest<K>, List<T>> pageFetcher = request -> caller.call(request, dataFetcher);
+            final Consumer<Integer> rangeWalker = rangeIndex -> {
+                final KeyRange<K> range = ranges.get(rangeIndex);
+                // A range started by a previous attempt is walked from the last key it consumed
+                final KeysetPageRequest<K> firstRequest = KeysetPageRequest.first(range, options.getSliceSize());
+                walk(checkpoint.lastKey(range).map(firstRequest::next).orElse(firstRequest), options.getSliceSize(), keyExtractor, pageFetcher, page -> {
+                    fetchedItems.add(page.size());
+                    fetchedSlices.increment();
+                    sliceConsumer.accept(rangeIndex, page);
+                    checkpoint.recordPage(range, keyExtractor.apply(page.getLast()));
+                });
+                checkpoint.recordRange(range);
+            };
+            // Ranges completed by a previous attempt of the run are skipped
+            final List<Integer> pendingRanges = IntStream.range(0, ranges.size())
+                    .filter(i -> !checkpoint.isCompleted(ranges.get(i)))
+                    .boxed()
+                    .toList();
+
+            log.info("Start processing . ranges: {}, pending ranges: {}, data size: {}, max parallelism: {}",
+                    ranges.size(), pendingRanges.size(), options.getSliceSize(), options.getMaxParallelism());
+            executor.run(pendingRanges.iterator(), rangeWalker);
+            checkpoint.complete();
+        }
+        log.info("Completed processing . total size: {}, slices: {}", fetchedItems.sum(), fetchedSlices.sum());
+        return new StreamingResult(fetchedItems.sum(), fetchedItems.sum(), fetchedSlices.sum());
+    }
+
+    /***
+     * Walks a key range page after page until a page shorter than the slice size is returned.
+     * @param firstRequest the request of the first page to fetch in the key range.
+     * @param sliceSize the size of each page to fetch.
+     * @param keyExtractor a function returning the pagination key of an item.
+     * @param dataFetcher a function that takes a KeysetPageRequest and returns the items of the page ordered by key.
+     * @param pageConsumer the consumer receiving each non-empty page.
+     * @param <K> the type of the pagination key.
+     * @param <T> the type of data being fetched.
+     */
+    private <K, T> void walk(KeysetPageRequest<K> firstRequest, int sliceSize, Function<T, K> keyExtractor,
+                             Function<KeysetPageRequest<K>, List<T>> dataFetcher, Consumer<List<T>> pageConsumer) {
+        KeysetPageRequest<K> request = firstRequest;
+        while (request != null) {
+            final List<T> page = Optional.ofNullable(dataFetcher.apply(request)).orElseGet(List::of);
+            log.debug("{} items fetched after key {} up to key {}", page.size(), request.lowerKey(), request.upperKey());
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+            }
+            request = page.size() < sliceSize ? null : request.next(keyExtractor.apply(page.getLast()));
+        }
+    }
+}
@@ -1,26 +1,57 @@
 package com.ia.common.utilities.helper.data;
 
+import com.ia.common.utilities.helper.data.model.AdaptiveSliceSizing;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.JPAOffsetPageRequest;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPage;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
 import com.ia.common.utilities.helper.math.SequenceGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /***
  * Default implementation of {@link SliceDataFetcher} that fetches data in slices using offset-based pagination.
- * It retrieves the first slice to determine the total size and next offsets, then fetches remaining slices in parallel.
- * The fetched data from all slices is merged into a single list and returned as a {@link ProcessingResult}.
+ * It retrieves the first slice to determine the total size and next offsets, then fetches remaining slices in parallel,
+ * either on the common pool or on a dedicated executor with bounded parallelism as described by {@link SliceFetchOptions}.
+ * On a dedicated executor, the slice size can adapt to the observed page latency as described by {@link AdaptiveSliceSizing},
+ * and the completed slices can be checkpointed so a failed run resumes with the missing slices only.
+ * Slices are retried and hedged as configured, and failing slices can be reported next to the fetched data.
+ * A deadline bounds the run, the data fetched in time being returned along with the offset ranges still missing.
+ * When counting the data is too expensive, pages can be fetched speculatively from {@link Slice}s until the first short page.
+ * The fetched data from all slices is merged into a single list and returned as a {@link ProcessingResult},
+ * or handed slice by slice to a consumer and summarized as a {@link StreamingResult} when streaming.
  * @see SliceDataFetcher
  * @see OffsetPage
  * @see OffsetPageRequest
  * @see ProcessingResult
+ * @see StreamingResult
  * @see SequenceGenerator
  * @author Martin Blaise Signe
  */
@@ -32,14 +63,14 @@ public class DefaultSliceDataFetcher implements SliceDataFetcher {
     public <T> ProcessingResult<T> fetch(int sliceSize, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher) {
 
         // Offset request creator definition
-        final Function<Long, Supplier<OffsetPageRequest>> offsetRequestCreator = offset -> () -> new OffsetPageRequest(offset, sliceSize);
+        final LongFunction<Supplier<OffsetPageRequest>> offsetRequestCreator = offset -> () -> new OffsetPageRequest(offset, sliceSize);
 
         // Fetch the first slice to get total size and next offsets
         final OffsetSliceState<List<T>> initialState = firstSliceFetcher(dataFetcher).apply(sliceSize);
 
         log.info("Start processing . data size: {}", sliceSize);
-        final Stream<T> remainingData = initialState.nextOffsets().parallelStream()
-                .map(offsetRequestCreator)
+        final Stream<T> remainingData = initialState.nextOffsets().parallel()
+                .mapToObj(offsetRequestCreator)
                 .map(dataFetcher)
                 .map(OffsetPage::getItems)
                 .flatMap(Collection::stream);
@@ -48,6 +79,284 @@ public class DefaultSliceDataFetcher implements SliceDataFetcher {
         return new ProcessingResult<>(mergedData);
     }
 
+    @Override
+    public <T> StreamingResult fetch(int sliceSize, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher, Consumer<OffsetPage<T>> sliceConsumer) {
+
+        // Offset request creator definition
+        final LongFunction<Supplier<OffsetPageRequest>> offsetRequestCreator = offset -> () -> new OffsetPageRequest(offset, sliceSize);
+
+        // Counts every page before handing it downstream, the page itself is not retained
+        final LongAdder fetchedItems = new LongAdder();
+        final LongAdder fetchedSlices = new LongAdder();
+        final Consumer<OffsetPage<T>> countingConsumer = page -> {
+            fetchedItems.add(itemsOf(page).size());
+            fetchedSlices.increment();
+            sliceConsumer.accept(page);
+        };
+
+        // Fetch the first slice to get total size and next offsets
+        final OffsetPage<T> firstPage = dataFetcher.apply(offsetRequestCreator.apply(0L));
+        final long totalSize = firstPage.getPageInformation().getTotalSize();
+        final LongStream nextOffsets = nextOffsets(sliceSize, firstPage);
+        countingConsumer.accept(firstPage);
+
+        log.info("Start streaming . data size: {}", sliceSize);
+        nextOffsets.parallel()
+                .mapToObj(offsetRequestCreator)
+                .map(dataFetcher)
+                .forEach(countingConsumer);
+        log.info("Completed streaming . total size: {}, slices: {}", fetchedItems.sum(), fetchedSlices.sum());
+        return new StreamingResult(totalSize, fetchedItems.sum(), fetchedSlices.sum());
+    }
+
+    @Override
+    public <T> ProcessingResult<T> fetch(SliceFetchOptions options, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher) {
+        // A resumed run skips the slices of the previous attempts, which the merged data would silently miss
+        if (options.isResumable()) {
+            throw new IllegalArgumentException("Resumable runs must be consumed slice by slice!");
+        }
+        // Pages are keyed by requested offset so the merged data keeps the offset order whatever the completion order
+        final Map<Long, List<T>> pagesByOffset = new ConcurrentSkipListMap<>();
+        final var summary = fetchSlices(options, dataFetcher, (request, page) -> pagesByOffset.put(request.offset(), itemsOf(page)));
+        final var mergedData = pagesByOffset.values().stream().flatMap(Collection::stream).toList();
+        log.info("Merged fetched data . total size: {}", mergedData.size());
+        return new ProcessingResult<>(mergedData, summary.failedRanges(), summary.missingRanges(), summary.deadlineReached());
+    }
+
+    @Override
+    public <T> StreamingResult fetch(SliceFetchOptions options, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher, Consumer<OffsetPage<T>> sliceConsumer) {
+        return fetchSlices(options, dataFetcher, (request, page) -> sliceConsumer.accept(page));
+    }
+
+    @Override
+    public <T> ProcessingResult<T> fetchWithoutCount(SliceFetchOptions options, Function<Pageable, Slice<T>> fetcher) {
+        final Map<Long, List<T>> pagesByOffset = new ConcurrentSkipListMap<>();
+        final var summary = fetchSpeculatively(options, fetcher, (request, items) -> pagesByOffset.put(request.offset(), items));
+        final var mergedData = pagesByOffset.values().stream().flatMap(Collection::stream).toList();
+        log.info("Merged fetched data . total size: {}", mergedData.size());
+        return new ProcessingResult<>(mergedData, summary.failedRanges());
+    }
+
+    @Override
+    public <T> StreamingResult fetchWithoutCount(SliceFetchOptions options, Function<Pageable, Slice<T>> fetcher, Consumer<List<T>> sliceConsumer) {
+        return fetchSpeculatively(options, fetcher, (request, items) -> sliceConsumer.accept(items));
+    }
+
+    /***
+     * Fetches pages speculatively on a {@link BoundedSliceExecutor} until the end of the data is found,
+     * the requests being planned by a {@link SpeculativeSlicePlanner}. Pages found to start after the end of the data are discarded.
+     * Options holding a deadline are rejected.
+     * @param options the options of the run.
+     * @param fetcher a function that takes a Pageable and returns a Slice of data.
+     * @param sliceConsumer the consumer receiving each request and the items of its page.
+     * @param <T> The type of data being fetched.
+     * @return a StreamingResult summarizing the fetched slices.
+     * @throws IllegalArgumentException if the options hold a deadline.
+     */
+    private <T> StreamingResult fetchSpeculatively(SliceFetchOptions options, Function<Pageable, Slice<T>> fetcher,
+                                                   BiConsumer<OffsetPageRequest, List<T>> sliceConsumer) {
+        // The ranges missing at the deadline are unknown without the total size, so a truncated run could not be told apart
+        if (options.getDeadline() != null) {
+            throw new IllegalArgumentException("Deadline is only supported by offset runs with a known total size!");
+        }
+        final var planner = new SpeculativeSlicePlanner(options.getSliceSize(), options.getLookahead(), options.getEstimatedTotal());
+        final LongAdder fetchedItems = new LongAdder();
+        final LongAdder fetchedSlices = new LongAdder();
+        final Queue<OffsetPageRequest> failedRequests = new ConcurrentLinkedQueue<>();
+
+        try (final var executor = new BoundedSliceExecutor(options);
+             final var caller = new ResilientSliceCaller(options, executor)) {
+            final Consumer<OffsetPageRequest> sliceFetcher = request -> {
+                try {
+                    final Slice<T> slice = caller.call(request, r -> fetcher.apply(JPAOffsetPageRequest.of(r)));
+                    final List<T> items = Optional.ofNullable(slice.getContent()).orElseGet(List::of);
+                    log.info("{} items fetched with offset {} and limit {}", items.size(), request.offset(), request.limit());
+                    planner.record(request, items.size(), slice.hasNext());
+                    if (!items.isEmpty() && planner.isBeforeEnd(request)) {
+                        fetchedItems.add(items.size());
+                        fetchedSlices.increment();
+                        sliceConsumer.accept(request, items);
+                    }
+                } catch (RuntimeException e) {
+                    if (!options.isPartialResults()) {
+                        throw e;
+                    }
+                    log.warn("Slice with offset {} and limit {} failed. message=[{}]", request.offset(), request.limit(), e.getLocalizedMessage());
+                    failedRequests.add(request);
+                } finally {
+                    planner.release();
+                }
+            };
+
+            log.info("Start processing without count . data size: {}, max parallelism: {}, lookahead: {}, estimated total: {}",
+                    options.getSliceSize(), options.getMaxParallelism(), options.getLookahead(), options.getEstimatedTotal());
+            executor.run(planner, sliceFetcher);
+        }
+        // Failed pages found to start after the end of the data were not needed anyway
+        final List<OffsetRange> failedRanges = failedRequests.stream()
+                .filter(planner::isBeforeEnd)
+                .map(OffsetRange::of)
+                .sorted(Comparator.comparingLong(OffsetRange::from))
+                .toList();
+        log.info("Completed processing without count . total size: {}, slices: {}, failed slices: {}", fetchedItems.sum(), fetchedSlices.sum(), failedRanges.size());
+        return new StreamingResult(fetchedItems.sum(), fetchedItems.sum(), fetchedSlices.sum(), failedRanges);
+    }
+
+    /***
+     * Fetches the first slice to get the total size, then fetches the remaining slices on a {@link BoundedSliceExecutor}.
+     * The remaining requests are planned lazily by a {@link SlicePlanner}, which resizes them from the observed latency
+     * when the options enable adaptive sizing. As with the offsets of {@link #nextOffsets(int, OffsetPage)}, the last request starts at the total size. Every fetched page is handed to the slice consumer along with its request.
+     * When the options are resumable, every consumed slice is recorded in a {@link SliceCheckpoint}, and a resumed run
+     * only plans the offsets missing from the checkpoint, reusing the recorded total size instead of fetching the first slice.
+     * Every slice is fetched through a {@link ResilientSliceCaller} applying the retry policy and the hedging of the options.
+     * With partial results enabled, a slice failing after its retries is reported in the result instead of failing the run,
+     * and the checkpoint is kept so a resumed run fetches it again.
+     * When the options hold a deadline, the slices in flight are cancelled once it is reached and no page is consumed afterwards,
+     * the slices not consumed in time being reported as missing ranges. When the deadline is reached before the first slice,
+     * the total size is reported as unknown and no missing range is reported.
+     * @param options the options of the run.
+     * @param dataFetcher Function that takes a Supplier of OffsetPageRequest and returns an OffsetPage of data.
+     * @param sliceConsumer the consumer receiving each request and its fetched page.
+     * @param <T> The type of data being fetched.
+     * @return a StreamingResult summarizing the slices fetched by this attempt.
+     */
+    private <T> StreamingResult fetchSlices(SliceFetchOptions options, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher,
+                                            BiConsumer<OffsetPageRequest, OffsetPage<T>> sliceConsumer) {
+        final int sliceSize = options.getSliceSize();
+        final LongAdder fetchedItems = new LongAdder();
+        final LongAdder fetchedSlices = new LongAdder();
+        final Queue<OffsetRange> failedRanges = new ConcurrentLinkedQueue<>();
+        // Ranges planned but not consumed yet, reported as missing when the deadline is reached
+        final Set<OffsetRange> unconsumedRanges = ConcurrentHashMap.newKeySet();
+        // Pages are only consumed while the run is open, the deadline closing it under the write lock
+        final ReadWriteLock consumptionLock = new ReentrantReadWriteLock();
+        final AtomicBoolean open = new AtomicBoolean(true);
+
+        try (final var checkpoint = SliceCheckpoint.open(options);
+             final var executor = new BoundedSliceExecutor(options, options.getDeadline());
+             final var caller = new ResilientSliceCaller(options, executor)) {
+            final Function<OffsetPageRequest, OffsetPage<T>> pageFetcher = request -> caller.call(request, r -> dataFetcher.apply(() -> r));
+            final BiConsumer<OffsetPageRequest, OffsetPage<T>> countingConsumer = (request, page) -> {
+                consumptionLock.readLock().lock();
+                try {
+                    if (!open.get()) {
+                        return;
+                    }
+                    fetchedItems.add(itemsOf(page).size());
+                    fetchedSlices.increment();
+                    sliceConsumer.accept(request, page);
+                    checkpoint.recordSlice(request);
+                    unconsumedRanges.remove(OffsetRange.of(request));
+                } finally {
+                    consumptionLock.readLock().unlock();
+                }
+            };
+
+            final long totalSize;
+            final List<OffsetRange> pendingRanges;
+            final SlicePlanner planner;
+            if (checkpoint.totalSize().isPresent()) {
+                totalSize = checkpoint.totalSize().getAsLong();
+                pendingRanges = pendingRanges(0, totalSize, sliceSize, checkpoint.completedSlices());
+                planner = new SlicePlanner(pendingRanges, sliceSize, options.getAdaptiveSizing());
+            } else {
+                // Fetch the first slice to get total size, its latency seeds the adaptive sizing
+                final long firstStart = System.nanoTime();
+                final OffsetPageRequest firstRequest = new OffsetPageRequest(0L, sliceSize);
+                final Optional<OffsetPage<T>> fetchedFirstPage = executor.call(() -> pageFetcher.apply(firstRequest));
+                if (fetchedFirstPage.isEmpty()) {
+                    log.warn("Deadline reached before the first slice . deadline: {}", options.getDeadline());
+                    // No range can be reported as missing without the total size
+                    return new StreamingResult(StreamingResult.UNKNOWN_TOTAL_SIZE, 0, 0, List.of(), List.of(), true);
+                }
+                final OffsetPage<T> firstPage = fetchedFirstPage.get();
+                final long firstElapsed = System.nanoTime() - firstStart;
+                totalSize = firstPage.getPageInformation().getTotalSize();
+                pendingRanges = firstPage.getPageInformation().isHasNext() ? pendingRanges(sliceSize, totalSize, sliceSize, List.of()) : List.of();
+                planner = new SlicePlanner(pendingRanges, sliceSize, options.getAdaptiveSizing());
+                planner.record(itemsOf(firstPage).size(), firstElapsed);
+                checkpoint.recordTotalSize(totalSize);
+                countingConsumer.accept(firstRequest, firstPage);
+            }
+
+            final Consumer<OffsetPageRequest> sliceFetcher = request -> {
+                final long start = System.nanoTime();
+                final OffsetPage<T> page;
+                try {
+                    page = pageFetcher.apply(request);
+                } catch (RuntimeException e) {
+                    // A slice cancelled by the deadline is reported as missing rather than failed
+                    if (!options.isPartialResults() || !open.get() || Thread.currentThread().isInterrupted()) {
+                        throw e;
+                    }
+                    log.warn("Slice with offset {} and limit {} failed. message=[{}]", request.offset(), request.limit(), e.getLocalizedMessage());
+                    failedRanges.add(OffsetRange.of(request));
+                    unconsumedRanges.remove(OffsetRange.of(request));
+                    return;
+                }
+                planner.record(itemsOf(page).size(), System.nanoTime() - start);
+                countingConsumer.accept(request, page);
+            };
+            final Iterator<OffsetPageRequest> trackedPlanner = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return planner.hasNext();
+                }
+
+                @Override
+                public OffsetPageRequest next() {
+                    final OffsetPageRequest request = planner.next();
+                    unconsumedRanges.add(OffsetRange.of(request));
+                    return request;
+                }
+            };
+
+            log.info("Start processing . data size: {}, max parallelism: {}, pending ranges: {}, deadline: {}",
+                    sliceSize, options.getMaxParallelism(), pendingRanges.size(), options.getDeadline());
+            final boolean completedInTime = executor.run(trackedPlanner, sliceFetcher);
+            final List<OffsetRange> missingRanges;
+            if (completedInTime) {
+                missingRanges = List.of();
+            } else {
+                consumptionLock.writeLock().lock();
+                try {
+                    open.set(false);
+                } finally {
+                    consumptionLock.writeLock().unlock();
+                }
+                // The trailing slice only looks for items appended since the count, so it is not reported as missing
+                missingRanges = Stream.concat(unconsumedRanges.stream(), planner.remaining().stream())
+                        .filter(range -> range.from() < totalSize)
+                        .sorted(Comparator.comparingLong(OffsetRange::from))
+                        .toList();
+            }
+            if (failedRanges.isEmpty() && missingRanges.isEmpty()) {
+                checkpoint.complete();
+            }
+            log.info("Completed processing . total size: {}, slices: {}, failed slices: {}, missing ranges: {}",
+                    fetchedItems.sum(), fetchedSlices.sum(), failedRanges.size(), missingRanges.size());
+            final List<OffsetRange> sortedFailures = failedRanges.stream().sorted(Comparator.comparingLong(OffsetRange::from)).toList();
+            return new StreamingResult(totalSize, fetchedItems.sum(), fetchedSlices.sum(), sortedFailures, missingRanges, !completedInTime);
+        }
+    }
+
+    /***
+     * Computes the offset ranges left to fetch up to the total size, followed by a trailing slice starting at the total size
+     * unless it has already been fetched, so the requests end at the total size as the offsets of {@link #nextOffsets(int, OffsetPage)} do.
+     * @param from the first offset left to fetch.
+     * @param totalSize the total size reported by the data source.
+     * @param sliceSize the size of the trailing slice.
+     * @param completedSlices the slices already fetched by a previous attempt of the run.
+     * @return the pending offset ranges, in offset order.
+     */
+    private List<OffsetRange> pendingRanges(long from, long totalSize, int sliceSize, Collection<OffsetRange> completedSlices) {
+        final List<OffsetRange> pendingRanges = new ArrayList<>(OffsetRange.gaps(from, totalSize, completedSlices));
+        if (completedSlices.stream().noneMatch(slice -> slice.from() >= totalSize)) {
+            pendingRanges.add(new OffsetRange(totalSize, totalSize + sliceSize));
+        }
+        return pendingRanges;
+    }
+
     /***
      * Fetches the first slice of data using the provided dataFetcher function.
      * It retrieves the first page of data, extracts the total size and next offsets,
@@ -59,15 +368,29 @@ public class DefaultSliceDataFetcher implements SliceDataFetcher {
     private <T> Function<Integer, OffsetSliceState<List<T>>> firstSliceFetcher(Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher) {
         return sliceSize -> {
             final OffsetPage<T> firstPage = dataFetcher.apply(() -> new OffsetPageRequest(0L, sliceSize));
-            final var pageInfo = firstPage.getPageInformation();
-            final long totalSize = pageInfo.getTotalSize();
-            final List<Long> nextOffsets = pageInfo.isHasNext() ? SequenceGenerator.arithmeticSequence(sliceSize, totalSize, sliceSize) : List.of();
-            final var fetchedData = Optional.ofNullable(firstPage.getItems()).orElseGet(List::of);
+            final long totalSize = firstPage.getPageInformation().getTotalSize();
+            final LongStream nextOffsets = nextOffsets(sliceSize, firstPage);
+            final var fetchedData = itemsOf(firstPage);
             return new OffsetSliceState<>(nextOffsets, fetchedData, totalSize);
         };
     }
 
+    /***
+     * Computes lazily the offsets of the slices remaining after the first page, so no offset list is built up front
+     * and the offsets are split evenly between the workers of a parallel stream.
+     * @param sliceSize the size of each slice.
+     * @param firstPage the first fetched page holding the pagination information.
+     * @return the offsets of the remaining slices, or an empty stream if the first page is the last one.
+     */
+    private LongStream nextOffsets(int sliceSize, OffsetPage<?> firstPage) {
+        final var pageInfo = firstPage.getPageInformation();
+        return pageInfo.isHasNext() ? SequenceGenerator.arithmeticStream(sliceSize, pageInfo.getTotalSize(), sliceSize) : LongStream.empty();
+    }
+
+    private <T> List<T> itemsOf(OffsetPage<T> page) {
+        return Optional.ofNullable(page.getItems()).orElseGet(List::of);
+    }
 
-    record OffsetSliceState<T>(List<Long> nextOffsets, T fetchedData, long totalSize) {
+    record OffsetSliceState<T>(LongStream nextOffsets, T fetchedData, long totalSize) {
     }
 }
@@ -0,0 +1,80 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.KeyStatistics;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/***
+ * Utility class planning the partitions of a parallel table scan by key range rather than by row offset.
+ * Every partition is a contiguous {@link KeyRange} walked as an independent indexed range scan, typically by a {@link KeysetSliceDataFetcher},
+ * so no partition pays for the rows skipped by an offset scan.
+ * The partition bounds are taken from the {@link KeyStatistics} supplied by the caller: with a histogram, the bounds follow
+ * its quantiles so every partition holds roughly the same number of rows even when the keys are skewed,
+ * otherwise the key space between the minimum and maximum keys is split into ranges of equal width.
+ * The first partition is open below and the last one open above, so the rows inserted since the statistics were taken are still covered.
+ * @see KeyRange#split(long, long, int)
+ * @author Martin Blaise Signe
+ */
+@UtilityClass
+@Slf4j
+public class KeyRangePartitioner {
+
+    /***
+     * Plans the key ranges of a numeric key column.
+     *
+     * @param statistics the statistics of the key column
+     * @param partitions the maximum number of ranges to create
+     * @return the contiguous key ranges covering the key space, fewer than requested when the keys are too dense
+     */
+    public List<KeyRange<Long>> partition(KeyStatistics statistics, int partitions) {
+        return partition(statistics, partitions, Long::valueOf);
+    }
+
+    /***
+     * Plans the key ranges of a column whose keys map to a numeric value, such as timestamps described by their epoch value.
+     *
+     * @param statistics the statistics of the numeric value of the keys
+     * @param partitions the maximum number of ranges to create
+     * @param keyMapper  a function returning the key of a numeric value, such as {@code Instant::ofEpochMilli}
+     * @param <K>        the type of the key
+     * @return the contiguous key ranges covering the key space, fewer than requested when the keys are too dense
+     */
+    public <K> List<KeyRange<K>> partition(KeyStatistics statistics, int partitions, LongFunction<K> keyMapper) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must not be less than one!");
+        }
+        if (!statistics.hasHistogram()) {
+            return KeyRange.split(statistics.minKey(), statistics.maxKey(), partitions).stream()
+                    .map(range -> new KeyRange<>(map(range.lowerKey(), keyMapper), map(range.upperKey(), keyMapper)))
+                    .toList();
+        }
+        final List<Long> bounds = statistics.histogramBounds();
+        final int buckets = bounds.size() - 1;
+        final List<KeyRange<K>> ranges = new ArrayList<>(partitions);
+        Long lowerKey = null;
+        for (int i = 1; i < partitions; i++) {
+            // Interpolate the quantile within its bucket, the rows being assumed evenly spread in a bucket
+            final double position = (double) i * buckets / partitions;
+            final int bucket = (int) position;
+            final double lower = bounds.get(bucket);
+            final double upper = bounds.get(Math.min(bucket + 1, buckets));
+            final long upperKey = (long) (lower + (upper - lower) * (position - bucket));
+            if (lowerKey == null || upperKey > lowerKey) {
+                ranges.add(new KeyRange<>(map(lowerKey, keyMapper), keyMapper.apply(upperKey)));
+                lowerKey = upperKey;
+            }
+        }
+        ranges.add(new KeyRange<>(map(lowerKey, keyMapper), null));
+        log.debug("Planned {} key ranges from a histogram of {} buckets", ranges.size(), buckets);
+        return ranges;
+    }
+
+    private <K> K map(Long key, LongFunction<K> keyMapper) {
+        return key == null ? null : keyMapper.apply(key);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.SliceDataFetcher.ProcessingResult;
+import com.ia.common.utilities.helper.data.SliceDataFetcher.StreamingResult;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.KeyStatistics;
+import com.ia.common.utilities.helper.data.model.pagination.KeysetPageRequest;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/***
+ * Utility interface for fetching data in slices using keyset (seek) pagination.
+ * Unlike {@link SliceDataFetcher}, pages are requested after the last seen key rather than at an offset,
+ * so every page is an indexed range scan whatever its depth in the data set.
+ * The key space can be split into {@link KeyRange}s which are walked in parallel, each one page after the other.
+ * The data fetcher is expected to run {@code WHERE key > lowerKey AND key <= upperKey ORDER BY key LIMIT limit},
+ * ignoring the bounds which are null.
+ *
+ * @see SliceDataFetcher
+ * @see KeysetPageRequest
+ * @see KeyRange
+ * @author Martin Blaise Signe
+ */
+public interface KeysetSliceDataFetcher {
+
+    /***
+     * Fetches the whole key space sequentially, page after page, using the provided data fetcher function.
+     *
+     * @param sliceSize    the size of each page to fetch
+     * @param keyExtractor a function returning the pagination key of an item
+     * @param dataFetcher  a function that takes a KeysetPageRequest and returns the items of the page ordered by key
+     * @param <K>          the type of the pagination key
+     * @param <T>          the type of data being fetched
+     * @return a ProcessingResult containing the fetched data
+     */
+    <K, T> ProcessingResult<T> fetch(int sliceSize, Function<T, K> keyExtractor, Function<KeysetPageRequest<K>, List<T>> dataFetcher);
+
+    /***
+     * Fetches the provided key ranges in parallel on the executor described by the options.
+     * The fetched data is merged in range order into a single list.
+     *
+     * @param options      the options holding the slice size, the maximum parallelism and the executor
+     * @param ranges       the contiguous key ranges to fetch
+     * @param keyExtractor a function returning the pagination key of an item
+     * @param dataFetcher  a function that takes a KeysetPageRequest and returns the items of the page ordered by key
+     * @param <K>          the type of the pagination key
+     * @param <T>          the type of data being fetched
+     * @return a ProcessingResult containing the fetched data
+     * @throws IllegalArgumentException if the options are resumable, a resumed run not fetching the data of its previous attempts,
+     *                                  or if they hold a deadline, which keyset runs do not honor
+     */
+    <K, T> ProcessingResult<T> fetch(SliceFetchOptions options, List<KeyRange<K>> ranges, Function<T, K> keyExtractor,
+                                     Function<KeysetPageRequest<K>, List<T>> dataFetcher);
+
+    /***
+     * Fetches the provided key ranges in parallel on the executor described by the options,
+     * handing every fetched page to the slice consumer as soon as it arrives.
+     *
+     * @param options       the options holding the slice size, the maximum parallelism and the executor
+     * @param ranges        the contiguous key ranges to fetch
+     * @param keyExtractor  a function returning the pagination key of an item
+     * @param dataFetcher   a function that takes a KeysetPageRequest and returns the items of the page ordered by key
+     * @param sliceConsumer the consumer receiving each fetched page, possibly from several threads
+     * @param <K>           the type of the pagination key
+     * @param <T>           the type of data being fetched
+     * @return a StreamingResult summarizing the fetched pages, its total size being the number of fetched items
+     * @throws IllegalArgumentException if the options hold a deadline, which keyset runs do not honor
+     */
+    <K, T> StreamingResult fetch(SliceFetchOptions options, List<KeyRange<K>> ranges, Function<T, K> keyExtractor,
+                                 Function<KeysetPageRequest<K>, List<T>> dataFetcher, Consumer<List<T>> sliceConsumer);
+
+    /***
+     * Fetches a table in parallel by key range, the ranges being planned from the statistics of its key column
+     * by {@link KeyRangePartitioner} so that every connection of the pool scans its own indexed range.
+     * The key space is split into {@code maxParallelism} ranges.
+     *
+     * @param options      the options holding the slice size, the maximum parallelism and the executor
+     * @param statistics   the min/max and histogram statistics of the key column
+     * @param keyExtractor a function returning the pagination key of an item
+     * @param dataFetcher  a function that takes a KeysetPageRequest and returns the items of the page ordered by key
+     * @param <T>          the type of data being fetched
+     * @return a ProcessingResult containing the fetched data in key order
+     */
+    default <T> ProcessingResult<T> fetch(SliceFetchOptions options, KeyStatistics statistics, Function<T, Long> keyExtractor,
+                                          Function<KeysetPageRequest<Long>, List<T>> dataFetcher) {
+        return fetch(options, KeyRangePartitioner.partition(statistics, options.getMaxParallelism()), keyExtractor, dataFetcher);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ia.common.utilities.helper.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/***
+ * Iterates over the pages of a data source sequentially, following {@link Pageable#next()} from the first request,
+ * while the following pages are fetched in the background. While the caller processes page N, pages N+1 to N+prefetch
+ * are being fetched, so the latency of the data source overlaps with the processing and at most {@code prefetch} pages
+ * are held besides the current one.
+ * The iteration stops at the first short page or at the first page reporting no next page, the pages requested beyond it being cancelled.
+ * Every page is fetched by a {@link FutureTask}, so cancelling a page interrupts its fetch if it is running.
+ * Once the total size is known, no page is requested beyond it.
+ * When no executor is provided, every page is fetched on its own virtual thread, which suits blocking page queries.
+ * The iterator is meant to be consumed by a single thread and must be closed when the iteration is abandoned.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     try (var pages = new PrefetchingPageIterator&lt;&gt;(new JPAOffsetPageRequest(0, 500), 2, null, repository::findAll)) {
+ *         pages.forEachRemaining(page -&gt; process(page.getContent()));
+ *     }
+ * </pre>
+ *
+ * @param <T> the type of data being fetched
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+public class PrefetchingPageIterator<T> implements Iterator<Page<T>>, AutoCloseable {
+
+    private final Function<Pageable, Page<T>> fetcher;
+    private final int prefetch;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Deque<PendingPage<T>> pendingPages = new ArrayDeque<>();
+    private Pageable nextRequest;
+    private long totalSize = Long.MAX_VALUE;
+    private boolean lastPageReached;
+
+    /***
+     * Creates the iterator and starts fetching the first pages in the background.
+     *
+     * @param firstRequest the request of the first page
+     * @param prefetch     the number of pages fetched ahead of the caller
+     * @param executor     the executor running the page fetches, a virtual thread per page is used when null
+     * @param fetcher      a function that takes a Pageable and returns a Page of data
+     */
+    public PrefetchingPageIterator(Pageable firstRequest, int prefetch, Executor executor, Function<Pageable, Page<T>> fetcher) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must not be less than one!");
+        }
+        this.fetcher = fetcher;
+        this.prefetch = prefetch;
+        this.ownedExecutor = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.executor = Optional.ofNullable(executor).orElse(ownedExecutor);
+        this.nextRequest = firstRequest;
+        schedule();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !pendingPages.isEmpty();
+    }
+
+    @Override
+    public Page<T> next() {
+        final PendingPage<T> pending = pendingPages.pollFirst();
+        if (pending == null) {
+            throw new NoSuchElementException("No page left to fetch");
+        }
+        final Page<T> page = join(pending.page());
+        log.debug("{} items fetched with offset {} and limit {}", page.getNumberOfElements(), pending.request().getOffset(), pending.request().getPageSize());
+        if (!page.hasNext() || page.getNumberOfElements() < pending.request().getPageSize()) {
+            lastPageReached = true;
+            cancelPendingPages();
+        } else {
+            totalSize = page.getTotalElements();
+            schedule();
+        }
+        return page;
+    }
+
+    /***
+     * @return a sequential stream of the remaining pages, closing the iterator when the stream is closed
+     */
+    public Stream<Page<T>> stream() {
+        final Spliterator<Page<T>> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /***
+     * @return a sequential stream of the items of the remaining pages, closing the iterator when the stream is closed
+     */
+    public Stream<T> items() {
+        return stream().map(Page::getContent).flatMap(Collection::stream);
+    }
+
+    /***
+     * Cancels the pages fetched ahead and shuts the owned executor down.
+     */
+    @Override
+    public void close() {
+        cancelPendingPages();
+        Optional.ofNullable(ownedExecutor).ifPresent(ExecutorService::shutdownNow);
+    }
+
+    /***
+     * Requests the following pages until the prefetch window is full, the end of the data is reached or the total size is crossed.
+     */
+    private void schedule() {
+        while (!lastPageReached && pendingPages.size() < prefetch && nextRequest.getOffset() < totalSize) {
+            final Pageable request = nextRequest;
+            // A future task interrupts its running fetch when cancelled, which a completable future does not
+            final FutureTask<Page<T>> page = new FutureTask<>(() -> fetcher.apply(request));
+            pendingPages.addLast(new PendingPage<>(request, page));
+            executor.execute(page);
+            nextRequest = request.next();
+        }
+    }
+
+    private void cancelPendingPages() {
+        pendingPages.forEach(pending -> pending.page().cancel(true));
+        pendingPages.clear();
+    }
+
+    private Page<T> join(Future<Page<T>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error during the page prefetching", e);
+        } catch (ExecutionException e) {
+            close();
+            log.error("Error during the page prefetching. message=[{}]", e.getCause().getLocalizedMessage(), e.getCause());
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Error during the page prefetching", e.getCause());
+        }
+    }
+
+    private record PendingPage<T>(Pageable request, Future<Page<T>> page) {
+    }
+}
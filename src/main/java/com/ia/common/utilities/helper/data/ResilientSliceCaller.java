@@ -0,0 +1,259 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.SliceHedging;
+import com.ia.common.utilities.helper.data.model.SliceRetryPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/***
+ * Calls the fetch of a single slice with the retry policy and the hedging described by the slice fetch options.
+ * A failing call is retried with a jittered exponential backoff until the maximum number of attempts is reached.
+ * When hedging is enabled and enough latencies have been observed, an attempt taking longer than the configured
+ * latency percentile triggers a duplicate call as soon as the {@link BoundedSliceExecutor} of the run has a free permit,
+ * and the first successful response is returned. The duplicate holds its permit until both attempts have completed,
+ * so the requests in flight never exceed the maximum parallelism, and no duplicate is fired when every permit is taken.
+ * Hedged attempts run on virtual threads owned by the caller, so they never queue behind the slices of the run
+ * on a saturated executor. The losing attempt is cancelled, its thread being interrupted and its response discarded.
+ *
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+final class ResilientSliceCaller implements AutoCloseable {
+
+    private static final int LATENCY_WINDOW = 256;
+
+    private final SliceRetryPolicy retryPolicy;
+    private final SliceHedging hedging;
+    private final ExecutorService hedgingExecutor;
+    private final BoundedSliceExecutor sliceExecutor;
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private long observedLatencies;
+
+    /***
+     * @param options       the options holding the retry policy and the hedging settings
+     * @param sliceExecutor the executor running the slices of the run, whose permits bound the hedged requests
+     */
+    ResilientSliceCaller(SliceFetchOptions options, BoundedSliceExecutor sliceExecutor) {
+        this.retryPolicy = options.getRetryPolicy();
+        this.hedging = options.getHedging();
+        this.hedgingExecutor = hedging == null ? null : Executors.newVirtualThreadPerTaskExecutor();
+        this.sliceExecutor = sliceExecutor;
+    }
+
+    /***
+     * Calls the fetcher for the provided slice, retrying and hedging as configured.
+     *
+     * @param slice   the slice to fetch
+     * @param fetcher the function fetching a slice
+     * @param <S>     the type of the slice description
+     * @param <R>     the type of the slice result
+     * @return the result of the first successful attempt
+     * @throws RuntimeException the failure of the last attempt when every attempt failed
+     */
+    <S, R> R call(S slice, Function<S, R> fetcher) {
+        final int maxAttempts = retryPolicy == null ? 1 : retryPolicy.getMaxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(slice, fetcher);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                final long backoffMillis = jittered(retryPolicy.backoff(attempt + 1).toMillis());
+                log.warn("Attempt {} of slice {} failed, retrying in {} ms. message=[{}]", attempt, slice, backoffMillis, e.getLocalizedMessage());
+                sleep(backoffMillis);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Optional.ofNullable(hedgingExecutor).ifPresent(ExecutorService::shutdownNow);
+    }
+
+    private <S, R> R attempt(S slice, Function<S, R> fetcher) {
+        final long hedgingDelay = hedgingDelayNanos();
+        final long start = System.nanoTime();
+        final R result = hedgingDelay < 0 ? fetcher.apply(slice) : hedgedAttempt(slice, fetcher, hedgingDelay);
+        record(System.nanoTime() - start);
+        return result;
+    }
+
+    private <S, R> R hedgedAttempt(S slice, Function<S, R> fetcher, long hedgingDelay) {
+        final HedgedCall<S, R> call = new HedgedCall<>(slice, fetcher);
+        final Attempt<S, R> primary = call.launch();
+        Attempt<S, R> hedge = null;
+        try {
+            while (true) {
+                try {
+                    return call.winner.get(hedgingDelay, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // The duplicate waits for a free permit, the primary attempt possibly completing meanwhile
+                    if (hedge == null && sliceExecutor.tryAcquirePermit()) {
+                        log.debug("Slice {} exceeded {} ms, firing a hedged request", slice, TimeUnit.NANOSECONDS.toMillis(hedgingDelay));
+                        hedge = call.launch();
+                        final Attempt<S, R> launchedHedge = hedge;
+                        CompletableFuture.allOf(primary.finished, launchedHedge.finished).whenComplete((ignored, exception) -> sliceExecutor.releasePermit());
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Slice fetching has been interrupted", e);
+        } finally {
+            // The losing attempt is not needed anymore
+            primary.cancel(true);
+            Optional.ofNullable(hedge).ifPresent(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private RuntimeException propagate(Throwable exception) {
+        if (exception instanceof CompletionException && exception.getCause() != null) {
+            return propagate(exception.getCause());
+        }
+        if (exception instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (exception instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException(exception.getLocalizedMessage(), exception);
+    }
+
+    /***
+     * @return the hedging delay in nanoseconds, or -1 when hedging is disabled or not enough latencies have been observed
+     */
+    private synchronized long hedgingDelayNanos() {
+        if (hedging == null || observedLatencies < hedging.getMinSamples()) {
+            return -1;
+        }
+        final int samples = (int) Math.min(observedLatencies, LATENCY_WINDOW);
+        final long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        final int index = (int) Math.min(samples - 1, Math.ceil(hedging.getPercentile() * samples) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    /***
+     * The attempts of a hedged call, the winner completing with the first successful attempt,
+     * or with the first failure once every launched attempt has failed.
+     */
+    private final class HedgedCall<S, R> {
+
+        private final S slice;
+        private final Function<S, R> fetcher;
+        private final CompletableFuture<R> winner = new CompletableFuture<>();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private int launched;
+        private int failed;
+
+        private HedgedCall(S slice, Function<S, R> fetcher) {
+            this.slice = slice;
+            this.fetcher = fetcher;
+        }
+
+        private Attempt<S, R> launch() {
+            synchronized (this) {
+                launched++;
+            }
+            final Attempt<S, R> attempt = new Attempt<>(this);
+            hedgingExecutor.execute(attempt);
+            return attempt;
+        }
+
+        private void fail(Throwable exception) {
+            firstFailure.compareAndSet(null, exception);
+            final boolean allFailed;
+            synchronized (this) {
+                allFailed = ++failed == launched;
+            }
+            if (allFailed) {
+                winner.completeExceptionally(firstFailure.get());
+            }
+        }
+    }
+
+    /***
+     * An attempt of a hedged call, whose completion is signalled once its fetch has returned, or once it has been cancelled before starting.
+     */
+    private static final class Attempt<S, R> extends FutureTask<R> {
+
+        private final HedgedCall<S, R> call;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        private Attempt(HedgedCall<S, R> call) {
+            super(() -> call.fetcher.apply(call.slice));
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                finished.complete(null);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                call.fail(new CancellationException("Hedged attempt of slice " + call.slice + " has been cancelled"));
+                // An attempt cancelled before starting never runs
+                if (started.compareAndSet(false, true)) {
+                    finished.complete(null);
+                }
+                return;
+            }
+            try {
+                call.winner.complete(get());
+            } catch (ExecutionException e) {
+                call.fail(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void record(long latencyNanos) {
+        if (hedging != null) {
+            latencies[(int) (observedLatencies % LATENCY_WINDOW)] = latencyNanos;
+            observedLatencies++;
+        }
+    }
+
+    private long jittered(long backoffMillis) {
+        return backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Slice fetching has been interrupted", e);
+        }
+    }
+}
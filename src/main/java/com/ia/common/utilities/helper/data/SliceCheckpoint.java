@@ -0,0 +1,226 @@
+package com.ia.common.utilities.helper.data;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.ia.common.utilities.helper.SerializerHelper;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.lang.reflect.Type;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/***
+ * Append-only checkpoint file recording the progress of a slice fetch run, so a failed run can be resumed.
+ * The file is named after the run id and holds one record per line:
+ * <ul>
+ *     <li>{@code total;<size>} the total size reported by the first slice of an offset run</li>
+ *     <li>{@code slice;<offset>;<limit>} a completed offset slice</li>
+ *     <li>{@code range;<lowerKey>;<upperKey>} a completed key range of a keyset run</li>
+ *     <li>{@code page;<lowerKey>;<upperKey>;<keyClass>;<lastKey>} the class and the JSON form of the last key consumed in a key range,
+ *     a resumed run walking the range from this key</li>
+ * </ul>
+ * Every record is flushed once its slice has been consumed, and the file is deleted when the run completes successfully.
+ * A disabled checkpoint, used when the options are not resumable, records nothing.
+ *
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+final class SliceCheckpoint implements AutoCloseable {
+
+    private static final String SEPARATOR = ";";
+    private static final String TOTAL_RECORD = "total";
+    private static final String SLICE_RECORD = "slice";
+    private static final String RANGE_RECORD = "range";
+    private static final String PAGE_RECORD = "page";
+    private static final String FILE_EXTENSION = ".checkpoint";
+
+    private final Path file;
+    private final BufferedWriter writer;
+    private final Long totalSize;
+    private final List<OffsetRange> completedSlices;
+    private final Set<String> completedRanges;
+    // The last key consumed in every key range, by range record
+    private final Map<String, Object> lastKeys;
+
+    private SliceCheckpoint(Path file, BufferedWriter writer, Long totalSize, List<OffsetRange> completedSlices, Set<String> completedRanges,
+                            Map<String, Object> lastKeys) {
+        this.file = file;
+        this.writer = writer;
+        this.totalSize = totalSize;
+        this.completedSlices = completedSlices;
+        this.completedRanges = completedRanges;
+        this.lastKeys = lastKeys;
+    }
+
+    /***
+     * Opens the checkpoint of the run described by the options, loading the progress recorded by the previous attempts.
+     *
+     * @param options the options holding the checkpoint directory and the run id
+     * @return the checkpoint of the run, or a disabled checkpoint when the options are not resumable
+     */
+    static SliceCheckpoint open(SliceFetchOptions options) {
+        if (!options.isResumable()) {
+            return new SliceCheckpoint(null, null, null, List.of(), Set.of(), Map.of());
+        }
+        final Path file = options.getCheckpointDirectory().resolve(options.getRunId() + FILE_EXTENSION);
+        try {
+            Files.createDirectories(options.getCheckpointDirectory());
+            Long totalSize = null;
+            final List<OffsetRange> completedSlices = new ArrayList<>();
+            final Set<String> completedRanges = new HashSet<>();
+            final Map<String, Object> lastKeys = new HashMap<>();
+            if (Files.exists(file)) {
+                for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    final String[] fields = line.split(SEPARATOR, -1);
+                    try {
+                        switch (fields[0]) {
+                            case TOTAL_RECORD -> totalSize = Long.parseLong(fields[1]);
+                            case SLICE_RECORD -> completedSlices.add(new OffsetRange(Long.parseLong(fields[1]), Long.parseLong(fields[1]) + Integer.parseInt(fields[2])));
+                            case RANGE_RECORD -> completedRanges.add(line);
+                            case PAGE_RECORD -> {
+                                // The last key is the trailing field, so its JSON form may hold the separator
+                                final String[] pageFields = line.split(SEPARATOR, 5);
+                                lastKeys.put(RANGE_RECORD + SEPARATOR + pageFields[1] + SEPARATOR + pageFields[2], readKey(pageFields[3], pageFields[4]));
+                            }
+                            default -> log.warn("Ignoring unknown checkpoint record [{}] in {}", line, file);
+                        }
+                    } catch (ClassNotFoundException | RuntimeException e) {
+                        // A partially written last record is ignored, its slice is fetched again
+                        log.warn("Ignoring unreadable checkpoint record [{}] in {}", line, file);
+                    }
+                }
+                log.info("Resuming run from checkpoint {} . completed slices: {}, completed ranges: {}, started ranges: {}",
+                        file, completedSlices.size(), completedRanges.size(), lastKeys.size());
+            }
+            final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return new SliceCheckpoint(file, writer, totalSize, completedSlices, completedRanges, lastKeys);
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to open the checkpoint file {}", file, e);
+            throw new RuntimeException("Error during checkpoint opening", e);
+        }
+    }
+
+    /***
+     * @return the total size recorded by a previous attempt, if any
+     */
+    OptionalLong totalSize() {
+        return totalSize == null ? OptionalLong.empty() : OptionalLong.of(totalSize);
+    }
+
+    /***
+     * @return the offset ranges completed by the previous attempts
+     */
+    List<OffsetRange> completedSlices() {
+        return completedSlices;
+    }
+
+    /***
+     * @param range a key range of a keyset run
+     * @return true if the key range has been completed by a previous attempt
+     */
+    boolean isCompleted(KeyRange<?> range) {
+        return completedRanges.contains(rangeRecord(range));
+    }
+
+    /***
+     * @param range a key range of a keyset run
+     * @param <K>   the type of the key
+     * @return the last key consumed in the range by the previous attempts, if any
+     */
+    @SuppressWarnings("unchecked")
+    <K> Optional<K> lastKey(KeyRange<K> range) {
+        return Optional.ofNullable((K) lastKeys.get(rangeRecord(range)));
+    }
+
+    void recordTotalSize(long size) {
+        append(TOTAL_RECORD + SEPARATOR + size);
+    }
+
+    void recordSlice(OffsetPageRequest request) {
+        append(SLICE_RECORD + SEPARATOR + request.offset() + SEPARATOR + request.limit());
+    }
+
+    void recordRange(KeyRange<?> range) {
+        append(rangeRecord(range));
+    }
+
+    void recordPage(KeyRange<?> range, Object lastKey) {
+        if (writer == null) {
+            return;
+        }
+        append(PAGE_RECORD + rangeRecord(range).substring(RANGE_RECORD.length()) + SEPARATOR + lastKey.getClass().getName()
+                + SEPARATOR + SerializerHelper.serialize(lastKey));
+    }
+
+    /***
+     * Deletes the checkpoint file once the run has completed, a later run with the same id starts from scratch.
+     */
+    void complete() {
+        if (file == null) {
+            return;
+        }
+        try {
+            writer.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Unable to delete the checkpoint file {}", file, e);
+            throw new RuntimeException("Error during checkpoint deletion", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Unable to close the checkpoint file {}", file, e);
+        }
+    }
+
+    private synchronized void append(String record) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(record);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.error("Unable to write the record [{}] to the checkpoint file {}", record, file, e);
+            throw new RuntimeException("Error during checkpoint writing", e);
+        }
+    }
+
+    private static Object readKey(String keyClass, String json) throws ClassNotFoundException {
+        final Class<?> type = Class.forName(keyClass);
+        return SerializerHelper.deserialize(json, () -> new TypeReference<>() {
+            @Override
+            public Type getType() {
+                return type;
+            }
+        });
+    }
+
+    private String rangeRecord(KeyRange<?> range) {
+        return RANGE_RECORD + SEPARATOR + Objects.toString(range.lowerKey()) + SEPARATOR + Objects.toString(range.upperKey());
+    }
+}
@@ -1,14 +1,20 @@
 package com.ia.common.utilities.helper.data;
 
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
 import com.ia.common.utilities.helper.data.model.pagination.JPAOffsetPageRequest;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPage;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -31,6 +37,105 @@ public interface SliceDataFetcher {
      */
     <T> ProcessingResult<T> fetch(int sliceSize, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher);
 
+    /***
+     * Fetches data in slices of the specified size and hands every fetched page to the slice consumer as soon as it arrives.
+     * Pages are not retained once consumed, so the memory footprint depends on the number of slices in flight
+     * rather than on the total size of the data. The consumer may be invoked concurrently and must be thread-safe.
+     *
+     * @param sliceSize     the size of each slice to fetch
+     * @param dataFetcher   a function that takes a supplier of OffsetPageRequest and returns an OffsetPage of data
+     * @param sliceConsumer the consumer receiving each fetched page
+     * @param <T>           the type of data being fetched
+     * @return a StreamingResult summarizing the fetched slices
+     */
+    <T> StreamingResult fetch(int sliceSize, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher, Consumer<OffsetPage<T>> sliceConsumer);
+
+    /***
+     * Fetches data in slices on the executor described by the options, with at most {@code maxParallelism} slices in flight.
+     * The fetched data is merged in offset order into a single list.
+     *
+     * @param options     the options holding the slice size, the maximum parallelism and the executor
+     * @param dataFetcher a function that takes a supplier of OffsetPageRequest and returns an OffsetPage of data
+     * @param <T>         the type of data being fetched
+     * @return a ProcessingResult containing the fetched data
+     * @throws IllegalArgumentException if the options are resumable, a resumed run not fetching the data of its previous attempts
+     */
+    <T> ProcessingResult<T> fetch(SliceFetchOptions options, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher);
+
+    /***
+     * Fetches data in slices on the executor described by the options, with at most {@code maxParallelism} slices in flight,
+     * and hands every fetched page to the slice consumer as soon as it arrives.
+     *
+     * @param options       the options holding the slice size, the maximum parallelism and the executor
+     * @param dataFetcher   a function that takes a supplier of OffsetPageRequest and returns an OffsetPage of data
+     * @param sliceConsumer the consumer receiving each fetched page, possibly from several threads
+     * @param <T>           the type of data being fetched
+     * @return a StreamingResult summarizing the fetched slices
+     */
+    <T> StreamingResult fetch(SliceFetchOptions options, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher, Consumer<OffsetPage<T>> sliceConsumer);
+
+    /***
+     * Fetches data in slices on the executor described by the options, returning what has been fetched when the deadline is reached.
+     * No slice is scheduled after the deadline and the slices still in flight are cancelled,
+     * so the result only holds the data fetched in time along with the offset ranges which are missing.
+     *
+     * @param options     the options holding the slice size, the maximum parallelism and the executor
+     * @param deadline    the instant by which the fetch must return
+     * @param dataFetcher a function that takes a supplier of OffsetPageRequest and returns an OffsetPage of data
+     * @param <T>         the type of data being fetched
+     * @return a ProcessingResult containing the data fetched before the deadline and the missing offset ranges
+     */
+    default <T> ProcessingResult<T> fetch(SliceFetchOptions options, Instant deadline, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher) {
+        return fetch(options.toBuilder().deadline(deadline).build(), dataFetcher);
+    }
+
+    /***
+     * Fetches data in slices without knowing the total size, so the data source never runs a count query.
+     * Pages are requested speculatively, at most {@code lookahead} pages beyond the pages known to exist,
+     * and the fetch stops at the first short page or at the first page reporting no next page.
+     * The pages up to the estimated total of the options, when provided, are requested in the initial parallel wave.
+     * Adaptive sizing and checkpoint settings do not apply to this mode.
+     *
+     * @param options the options holding the slice size, the maximum parallelism, the executor, the lookahead and the estimated total
+     * @param fetcher a function that takes a Pageable and returns a Slice of data, without count query
+     * @param <T>     the type of data being fetched
+     * @return a ProcessingResult containing the fetched data in offset order
+     * @throws IllegalArgumentException if the options hold a deadline, the missing ranges being unknown without the total size
+     */
+    <T> ProcessingResult<T> fetchWithoutCount(SliceFetchOptions options, Function<Pageable, Slice<T>> fetcher);
+
+    /***
+     * Fetches data in slices without knowing the total size, handing every fetched page to the slice consumer as soon as it arrives.
+     *
+     * @param options       the options holding the slice size, the maximum parallelism, the executor, the lookahead and the estimated total
+     * @param fetcher       a function that takes a Pageable and returns a Slice of data, without count query
+     * @param sliceConsumer the consumer receiving the items of each fetched page, possibly from several threads
+     * @param <T>           the type of data being fetched
+     * @return a StreamingResult summarizing the fetched slices, its total size being the number of fetched items
+     * @throws IllegalArgumentException if the options hold a deadline, the missing ranges being unknown without the total size
+     * @see #fetchWithoutCount(SliceFetchOptions, Function)
+     */
+    <T> StreamingResult fetchWithoutCount(SliceFetchOptions options, Function<Pageable, Slice<T>> fetcher, Consumer<List<T>> sliceConsumer);
+
+    /***
+     * Fetches data in slices on the provided executor, with at most {@code maxParallelism} slices in flight.
+     *
+     * @param sliceSize      the size of each slice to fetch
+     * @param maxParallelism the maximum number of slices fetched concurrently
+     * @param executor       the executor running the slice fetches, a virtual thread per slice is used when null
+     * @param dataFetcher    a function that takes a supplier of OffsetPageRequest and returns an OffsetPage of data
+     * @param <T>            the type of data being fetched
+     * @return a ProcessingResult containing the fetched data
+     */
+    default <T> ProcessingResult<T> fetch(int sliceSize, int maxParallelism, Executor executor, Function<Supplier<OffsetPageRequest>, OffsetPage<T>> dataFetcher) {
+        final SliceFetchOptions options = SliceFetchOptions.builder()
+                .sliceSize(sliceSize)
+                .maxParallelism(maxParallelism)
+                .executor(executor)
+                .build();
+        return fetch(options, dataFetcher);
+    }
+
     /***
      * Creates a data fetcher function that uses the provided fetcher function to retrieve data.
      *
@@ -41,7 +146,7 @@ public interface SliceDataFetcher {
     default <T> Function<Supplier<OffsetPageRequest>, OffsetPage<T>> fetch(Function<Pageable, Page<T>> fetcher) {
         return requestSupplier -> {
             OffsetPageRequest request = requestSupplier.get();
-            final Pageable pageable = new JPAOffsetPageRequest(request.offset().intValue(), request.limit());
+            final Pageable pageable = JPAOffsetPageRequest.of(request);
             final Page<T> data = fetcher.apply(pageable);
             log.info("{} items fetched with offset {} and limit {}", data.getNumberOfElements(), request.offset(), request.limit());
             return OffsetPage.of(data.getContent(), request.offset(), data.getSize(), data.getTotalElements());
@@ -49,10 +154,89 @@ public interface SliceDataFetcher {
     }
 
     /***
-     * A record to hold the result of the data processing, including the fetched data.
+     * Iterates sequentially over the pages of the data source, fetching the following pages in the background
+     * while the caller processes the current one, for consumers which do not need the parallel fan-out.
+     *
+     * @param firstRequest the request of the first page
+     * @param prefetch     the number of pages fetched ahead of the caller
+     * @param fetcher      a function that takes a Pageable and returns a Page of data
+     * @param <T>          the type of data being fetched
+     * @return an iterator over the pages, to be closed when the iteration is abandoned
+     */
+    default <T> PrefetchingPageIterator<T> iterate(Pageable firstRequest, int prefetch, Function<Pageable, Page<T>> fetcher) {
+        return new PrefetchingPageIterator<>(firstRequest, prefetch, null, fetcher);
+    }
+
+    /***
+     * A record to hold the result of the data processing, including the fetched data,
+     * the offset ranges of the slices which could not be fetched when partial results are enabled,
+     * and the offset ranges which were not fetched before the deadline.
      *
-     * @param fetchedData the list of fetched data
-     * @param <T>         the type of data being held
+     * @param fetchedData     the list of fetched data
+     * @param failedRanges    the offset ranges of the failed slices, in offset order
+     * @param missingRanges   the offset ranges not fetched before the deadline, in offset order,
+     *                        empty when the deadline was reached before the total size was known
+     * @param deadlineReached true if the deadline was reached before every slice was fetched
+     * @param <T>             the type of data being held
      */
-    record ProcessingResult<T>(List<T> fetchedData) {}
+    record ProcessingResult<T>(List<T> fetchedData, List<OffsetRange> failedRanges, List<OffsetRange> missingRanges, boolean deadlineReached) {
+
+        public ProcessingResult(List<T> fetchedData) {
+            this(fetchedData, List.of());
+        }
+
+        public ProcessingResult(List<T> fetchedData, List<OffsetRange> failedRanges) {
+            this(fetchedData, failedRanges, List.of(), false);
+        }
+
+        /***
+         * @return true if every slice has been fetched
+         */
+        public boolean isComplete() {
+            return failedRanges.isEmpty() && !deadlineReached;
+        }
+    }
+
+    /***
+     * A record to hold the summary of a streaming fetch, where the fetched data is handed to a consumer instead of being collected.
+     *
+     * @param totalSize       the total number of items reported by the data source, {@link #UNKNOWN_TOTAL_SIZE} when the deadline
+     *                        was reached before the first slice
+     * @param fetchedItems    the number of items handed to the consumer
+     * @param fetchedSlices   the number of slices handed to the consumer
+     * @param failedRanges    the offset ranges of the failed slices, in offset order
+     * @param missingRanges   the offset ranges not fetched before the deadline, in offset order,
+     *                        empty when the deadline was reached before the total size was known
+     * @param deadlineReached true if the deadline was reached before every slice was fetched
+     */
+    record StreamingResult(long totalSize, long fetchedItems, long fetchedSlices, List<OffsetRange> failedRanges,
+                           List<OffsetRange> missingRanges, boolean deadlineReached) {
+
+        /***
+         * The total size of a run whose deadline was reached before the data source reported it.
+         */
+        public static final long UNKNOWN_TOTAL_SIZE = -1;
+
+        public StreamingResult(long totalSize, long fetchedItems, long fetchedSlices) {
+            this(totalSize, fetchedItems, fetchedSlices, List.of());
+        }
+
+        public StreamingResult(long totalSize, long fetchedItems, long fetchedSlices, List<OffsetRange> failedRanges) {
+            this(totalSize, fetchedItems, fetchedSlices, failedRanges, List.of(), false);
+        }
+
+        /***
+         * @return true if the data source reported the total size before the deadline
+         */
+        public boolean isTotalSizeKnown() {
+            return totalSize != UNKNOWN_TOTAL_SIZE;
+        }
+
+        /***
+         * @return true if every slice has been fetched
+         */
+        public boolean isComplete() {
+            return failedRanges.isEmpty() && !deadlineReached;
+        }
+    }
 }
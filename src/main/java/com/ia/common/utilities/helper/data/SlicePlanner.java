@@ -0,0 +1,100 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.model.AdaptiveSliceSizing;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/***
+ * Plans the offset requests of a slice fetch run lazily, one request at a time, over the pending offset ranges.
+ * The pending ranges are usually the offsets following the first slice up to the total size, or the gaps left by a
+ * previous run when resuming from a checkpoint, followed by the trailing slice starting at the total size.
+ * A request never crosses the end of its pending range.
+ * With a fixed sizing every request has the same limit. With an {@link AdaptiveSliceSizing}, the latency per item
+ * observed on every completed slice is fed back through {@link #record(int, long)} and the limit of the requests
+ * planned afterwards is adjusted toward the target latency, so the remaining offsets are re-planned as the run goes.
+ * The planner is thread-safe: requests are planned by the scheduling thread while observations come from the workers.
+ *
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+final class SlicePlanner implements Iterator<OffsetPageRequest> {
+
+    private final Deque<OffsetRange> pendingRanges;
+    private final AdaptiveSliceSizing adaptiveSizing;
+    private long nextOffset;
+    private double sliceSize;
+    private double nanosPerItem = -1;
+
+    SlicePlanner(List<OffsetRange> pendingRanges, int sliceSize, AdaptiveSliceSizing adaptiveSizing) {
+        this.pendingRanges = new ArrayDeque<>(pendingRanges);
+        this.nextOffset = pendingRanges.isEmpty() ? 0 : pendingRanges.getFirst().from();
+        this.sliceSize = sliceSize;
+        this.adaptiveSizing = adaptiveSizing;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        while (!pendingRanges.isEmpty() && nextOffset >= pendingRanges.getFirst().to()) {
+            pendingRanges.removeFirst();
+            if (!pendingRanges.isEmpty()) {
+                nextOffset = pendingRanges.getFirst().from();
+            }
+        }
+        return !pendingRanges.isEmpty();
+    }
+
+    @Override
+    public synchronized OffsetPageRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No slice left to plan");
+        }
+        final long remaining = pendingRanges.getFirst().to() - nextOffset;
+        final int limit = (int) Math.min(currentSliceSize(), remaining);
+        final var request = new OffsetPageRequest(nextOffset, limit);
+        nextOffset += limit;
+        return request;
+    }
+
+    /***
+     * @return the offset ranges not planned yet, in offset order
+     */
+    synchronized List<OffsetRange> remaining() {
+        if (!hasNext()) {
+            return List.of();
+        }
+        final List<OffsetRange> remaining = new ArrayList<>(pendingRanges);
+        remaining.set(0, new OffsetRange(nextOffset, pendingRanges.getFirst().to()));
+        return remaining;
+    }
+
+    /***
+     * Records the latency of a completed slice and adjusts the size of the next slices when the sizing is adaptive.
+     *
+     * @param items        the number of items fetched by the slice
+     * @param elapsedNanos the time taken to fetch the slice in nanoseconds
+     */
+    synchronized void record(int items, long elapsedNanos) {
+        if (adaptiveSizing == null || items == 0) {
+            return;
+        }
+        final double observed = (double) Math.max(elapsedNanos, 1L) / items;
+        nanosPerItem = nanosPerItem < 0 ? observed : adaptiveSizing.getSmoothing() * observed + (1 - adaptiveSizing.getSmoothing()) * nanosPerItem;
+        final double targetSize = adaptiveSizing.getTargetLatency().toNanos() / nanosPerItem;
+        final double growthFactor = adaptiveSizing.getGrowthFactor();
+        final double boundedSize = Math.clamp(targetSize, sliceSize / growthFactor, sliceSize * growthFactor);
+        sliceSize = Math.clamp(boundedSize, adaptiveSizing.getMinSliceSize(), adaptiveSizing.getMaxSliceSize());
+        log.debug("Slice size adjusted to {} . latency per item: {} ns", currentSliceSize(), Math.round(nanosPerItem));
+    }
+
+    synchronized int currentSliceSize() {
+        return (int) Math.max(1, Math.min(Math.round(sliceSize), Integer.MAX_VALUE));
+    }
+}
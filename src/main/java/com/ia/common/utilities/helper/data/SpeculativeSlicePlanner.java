@@ -0,0 +1,102 @@
+package com.ia.common.utilities.helper.data;
+
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/***
+ * Plans the offset requests of a slice fetch run whose total size is unknown.
+ * Pages known to exist are those below the frontier, which starts at the estimated total when one is provided and
+ * advances every time a full page reporting a next page completes. Beyond the frontier, at most {@code lookahead} pages
+ * are requested speculatively; the planner waits for in-flight pages before going further.
+ * The first short page, or the first page reporting no next page, sets the end of the data and stops the planning.
+ * A failed page never moves the frontier, so once no page is in flight and the lookahead window is exhausted,
+ * the planning stops as well, the failed pages bounding the scan instead of an end of data that could not be found.
+ * The planner is thread-safe: requests are planned by the scheduling thread while completions come from the workers.
+ *
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+final class SpeculativeSlicePlanner implements Iterator<OffsetPageRequest> {
+
+    private final int sliceSize;
+    private final int lookahead;
+    private long nextOffset;
+    private long frontier;
+    private long endOffset = Long.MAX_VALUE;
+    private int inFlight;
+
+    SpeculativeSlicePlanner(int sliceSize, int lookahead, Long estimatedTotal) {
+        this.sliceSize = sliceSize;
+        this.lookahead = lookahead;
+        this.frontier = estimatedTotal == null ? 0 : Math.max(0, estimatedTotal);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        // Wait for in-flight pages while the next one is too far beyond the pages known to exist
+        while (nextOffset < endOffset && inFlight > 0 && isBeyondLookahead()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Slice fetching has been interrupted", e);
+            }
+        }
+        if (nextOffset < endOffset && isBeyondLookahead()) {
+            // Every page of the window has completed without moving the frontier, so some of them failed
+            log.warn("No page of the lookahead window extended the data, stopping at offset {} . frontier: {}", nextOffset, frontier);
+            endOffset = nextOffset;
+        }
+        return nextOffset < endOffset;
+    }
+
+    @Override
+    public synchronized OffsetPageRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No slice left to plan");
+        }
+        final var request = new OffsetPageRequest(nextOffset, sliceSize);
+        nextOffset += sliceSize;
+        inFlight++;
+        return request;
+    }
+
+    /***
+     * Records a completed page, advancing the frontier when the page is full or setting the end of the data otherwise.
+     *
+     * @param request the request of the page
+     * @param items   the number of items of the page
+     * @param hasNext whether the data source reports a page after this one
+     */
+    synchronized void record(OffsetPageRequest request, int items, boolean hasNext) {
+        if (items < request.limit() || !hasNext) {
+            endOffset = Math.min(endOffset, request.offset() + items);
+            log.debug("End of data found at offset {}", endOffset);
+        } else {
+            frontier = Math.max(frontier, request.offset() + request.limit());
+        }
+    }
+
+    /***
+     * Releases a page which is no longer in flight, whether it has been fetched or not.
+     */
+    synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    private boolean isBeyondLookahead() {
+        return nextOffset >= frontier + (long) lookahead * sliceSize;
+    }
+
+    /***
+     * @param request the request of a page
+     * @return true if the page starts before the end of the data
+     */
+    synchronized boolean isBeforeEnd(OffsetPageRequest request) {
+        return request.offset() < endOffset;
+    }
+}
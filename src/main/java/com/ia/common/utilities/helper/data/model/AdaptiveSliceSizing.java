@@ -0,0 +1,70 @@
+package com.ia.common.utilities.helper.data.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/***
+ * Settings of the adaptive slice sizing of a slice fetch run.
+ * The latency per item of every fetched slice is measured while the run is going, and the size of the next slices
+ * is grown or shrunk so that a slice takes about the target latency. Wide rows therefore get smaller slices while
+ * narrow rows get larger ones, within the minimum and maximum slice sizes.
+ * The observed latency per item is smoothed with an exponentially weighted moving average, and the slice size
+ * changes by at most the growth factor between two consecutive observations.
+ *
+ * @author Martin Blaise Signe
+ */
+@Getter
+@Builder
+public class AdaptiveSliceSizing {
+
+    /***
+     * The latency a single slice fetch should take.
+     */
+    private final Duration targetLatency;
+
+    /***
+     * The minimum number of items requested by a slice.
+     */
+    @Builder.Default
+    private final int minSliceSize = 1;
+
+    /***
+     * The maximum number of items requested by a slice.
+     */
+    @Builder.Default
+    private final int maxSliceSize = Integer.MAX_VALUE;
+
+    /***
+     * The weight of the latest observation in the moving average of the latency per item, between 0 and 1.
+     */
+    @Builder.Default
+    private final double smoothing = 0.5;
+
+    /***
+     * The maximum factor by which the slice size grows or shrinks between two consecutive observations.
+     */
+    @Builder.Default
+    private final double growthFactor = 2.0;
+
+    private AdaptiveSliceSizing(Duration targetLatency, int minSliceSize, int maxSliceSize, double smoothing, double growthFactor) {
+        if (targetLatency == null || targetLatency.isNegative() || targetLatency.isZero()) {
+            throw new IllegalArgumentException("Target latency must be greater than zero!");
+        }
+        if (minSliceSize < 1 || maxSliceSize < minSliceSize) {
+            throw new IllegalArgumentException("Slice size bounds must satisfy 1 <= min <= max!");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be within ]0, 1]!");
+        }
+        if (growthFactor <= 1) {
+            throw new IllegalArgumentException("Growth factor must be greater than one!");
+        }
+        this.targetLatency = targetLatency;
+        this.minSliceSize = minSliceSize;
+        this.maxSliceSize = maxSliceSize;
+        this.smoothing = smoothing;
+        this.growthFactor = growthFactor;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ia.common.utilities.helper.data.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.regex.Pattern;
+import java.util.concurrent.Executor;
+
+/***
+ * Options driving a slice fetch run executed on a dedicated executor.
+ * The maximum parallelism bounds the number of slices in flight, so it can be aligned with the size of the connection pool.
+ * When no executor is provided, every slice is fetched on its own virtual thread, which suits blocking page queries.
+ * When a checkpoint directory and a run id are provided, the completed slices are recorded so a failed run can be resumed.
+ * Failing slices can be retried with backoff, slow slices can be hedged with a duplicate request, and the slices
+ * still failing can be reported next to the fetched data rather than failing the whole run.
+ * A deadline bounds the duration of the run, the slices not fetched in time being reported as missing.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     SliceFetchOptions options = SliceFetchOptions.builder()
+ *             .sliceSize(1000)
+ *             .maxParallelism(8)
+ *             .build();
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ */
+@Getter
+@Builder(toBuilder = true)
+public class SliceFetchOptions {
+
+    /***
+     * Default number of pages requested speculatively beyond the pages known to exist.
+     */
+    public static final int DEFAULT_LOOKAHEAD = 4;
+
+    private static final Pattern RUN_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]+");
+
+    /***
+     * The number of items requested by each slice.
+     */
+    private final int sliceSize;
+
+    /***
+     * The maximum number of slices fetched concurrently.
+     */
+    @Builder.Default
+    private final int maxParallelism = Runtime.getRuntime().availableProcessors();
+
+    /***
+     * The executor running the slice fetches, a virtual thread per slice is used when null.
+     */
+    private final Executor executor;
+
+    /***
+     * The adaptive sizing settings, the slice size stays fixed when null.
+     * When set, the slice size is the size of the first slice and the following ones are sized from the observed latency.
+     */
+    private final AdaptiveSliceSizing adaptiveSizing;
+
+    /***
+     * The directory holding the checkpoint files, the run is not resumable when null.
+     */
+    private final Path checkpointDirectory;
+
+    /***
+     * The identifier of the run, a run restarted with the same identifier only fetches the slices missing from its checkpoint.
+     * It names the checkpoint file, so it only holds letters, digits, dots, underscores and hyphens.
+     * The data fetched by the previous attempts is not fetched again, so only the fetches consuming the run slice by slice accept a run id.
+     */
+    private final String runId;
+
+    /***
+     * The retry policy of every slice, a failing slice is not retried when null.
+     */
+    private final SliceRetryPolicy retryPolicy;
+
+    /***
+     * The hedging settings, no duplicate request is fired for slow slices when null.
+     */
+    private final SliceHedging hedging;
+
+    /***
+     * Whether the slices still failing after their retries are reported next to the fetched data instead of failing the run.
+     * Only offset runs report partial results, keyset runs always fail on the first failing range.
+     */
+    private final boolean partialResults;
+
+    /***
+     * The number of pages requested speculatively beyond the pages known to exist when the total size is unknown.
+     */
+    @Builder.Default
+    private final int lookahead = DEFAULT_LOOKAHEAD;
+
+    /***
+     * The estimated total size used when the total size is unknown, such as a planner statistic.
+     * The pages up to the estimated total are requested in the initial parallel wave, the lookahead applying beyond it.
+     */
+    private final Long estimatedTotal;
+
+    /***
+     * The instant after which no slice is scheduled and the slices in flight are cancelled, the run has no deadline when null.
+     * The data fetched before the deadline is returned along with the offset ranges which are missing.
+     * Only offset runs with a known total size honor the deadline, the runs without count and the keyset runs rejecting it.
+     */
+    private final Instant deadline;
+
+    private SliceFetchOptions(int sliceSize, int maxParallelism, Executor executor, AdaptiveSliceSizing adaptiveSizing,
+                              Path checkpointDirectory, String runId, SliceRetryPolicy retryPolicy, SliceHedging hedging,
+                              boolean partialResults, int lookahead, Long estimatedTotal, Instant deadline) {
+        if (sliceSize < 1) {
+            throw new IllegalArgumentException("Slice size must not be less than one!");
+        }
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("Max parallelism must not be less than one!");
+        }
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must not be less than one!");
+        }
+        if ((checkpointDirectory == null) != (runId == null || runId.isBlank())) {
+            throw new IllegalArgumentException("Checkpoint directory and run id must be provided together!");
+        }
+        if (runId != null && !runId.isBlank() && !RUN_ID_PATTERN.matcher(runId).matches()) {
+            throw new IllegalArgumentException("Run id must only hold letters, digits, dots, underscores and hyphens!");
+        }
+        this.sliceSize = sliceSize;
+        this.maxParallelism = maxParallelism;
+        this.executor = executor;
+        this.adaptiveSizing = adaptiveSizing;
+        this.checkpointDirectory = checkpointDirectory;
+        this.runId = runId;
+        this.retryPolicy = retryPolicy;
+        this.hedging = hedging;
+        this.partialResults = partialResults;
+        this.lookahead = lookahead;
+        this.estimatedTotal = estimatedTotal;
+        this.deadline = deadline;
+    }
+
+    /***
+     * @return true if the run records its progress in a checkpoint file and can be resumed
+     */
+    public boolean isResumable() {
+        return checkpointDirectory != null;
+    }
+}
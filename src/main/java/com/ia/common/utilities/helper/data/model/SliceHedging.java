@@ -0,0 +1,42 @@
+package com.ia.common.utilities.helper.data.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/***
+ * Hedging settings of a slice fetch run.
+ * When a slice takes longer than the given percentile of the latencies observed on the completed slices,
+ * a duplicate request is fired for the same slice and the first successful response wins.
+ * Hedging only starts once enough latencies have been observed, and fires at most one duplicate per slice,
+ * so it adds a bounded load to the data source while cutting the tail latency caused by slow slices.
+ * A duplicate request counts against the maximum parallelism of the run, so it is only fired once a slot is free.
+ *
+ * @author Martin Blaise Signe
+ */
+@Getter
+@Builder
+public class SliceHedging {
+
+    /***
+     * The latency percentile beyond which a duplicate request is fired, between 0 and 1.
+     */
+    @Builder.Default
+    private final double percentile = 0.95;
+
+    /***
+     * The number of observed latencies required before hedging starts.
+     */
+    @Builder.Default
+    private final int minSamples = 20;
+
+    private SliceHedging(double percentile, int minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be within ]0, 1[!");
+        }
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("Min samples must not be less than one!");
+        }
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+}
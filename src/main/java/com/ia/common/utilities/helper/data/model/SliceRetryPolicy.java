@@ -0,0 +1,70 @@
+package com.ia.common.utilities.helper.data.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/***
+ * Retry policy applied to every slice of a slice fetch run.
+ * A failing slice is attempted again up to the maximum number of attempts, waiting between two attempts for a backoff
+ * growing exponentially from the initial backoff up to the maximum backoff. The backoff is jittered between half and
+ * the whole of its value, so slices failing together do not hit the data source again at the same time.
+ *
+ * @author Martin Blaise Signe
+ */
+@Getter
+@Builder
+public class SliceRetryPolicy {
+
+    /***
+     * The maximum number of attempts of a slice, including the first one.
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /***
+     * The backoff before the second attempt.
+     */
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(100);
+
+    /***
+     * The factor applied to the backoff after every failed attempt.
+     */
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    /***
+     * The maximum backoff between two attempts.
+     */
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(10);
+
+    private SliceRetryPolicy(int maxAttempts, Duration initialBackoff, double multiplier, Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must not be less than one!");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative() || maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoffs must satisfy 0 <= initial <= max!");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("Multiplier must not be less than one!");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.multiplier = multiplier;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /***
+     * Computes the backoff before the provided attempt, without jitter.
+     *
+     * @param attempt the attempt about to be made, starting at 2 for the first retry
+     * @return the backoff before the attempt
+     */
+    public Duration backoff(int attempt) {
+        final double backoffMillis = initialBackoff.toMillis() * Math.pow(multiplier, Math.max(0, attempt - 2));
+        return Duration.ofMillis((long) Math.min(backoffMillis, maxBackoff.toMillis()));
+    }
+}
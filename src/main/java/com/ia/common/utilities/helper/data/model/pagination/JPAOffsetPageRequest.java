@@ -9,8 +9,9 @@ import java.io.Serializable;
  * A custom implementation of Spring Data's Pageable interface that uses offset and limit for pagination.
  * This is useful for scenarios where you want to control the starting point (offset) and the number of records (limit)
  * to be fetched from a data source, such as a database.
+ * The offset is a 64-bit value so deep pages of very large tables do not overflow.
  */
-public record JPAOffsetPageRequest(int offset, int limit, Sort sort) implements Pageable, Serializable {
+public record JPAOffsetPageRequest(long offset, int limit, Sort sort) implements Pageable, Serializable {
 
     public JPAOffsetPageRequest {
         if (limit < 1) {
@@ -29,7 +30,7 @@ public record JPAOffsetPageRequest(int offset, int limit, Sort sort) implements
      * @param direction  the direction of the sort.
      * @param properties the properties to sort by.
      */
-    public JPAOffsetPageRequest(int offset, int limit, Sort.Direction direction, String... properties) {
+    public JPAOffsetPageRequest(long offset, int limit, Sort.Direction direction, String... properties) {
         this(offset, limit, Sort.by(direction, properties));
     }
 
@@ -40,13 +41,23 @@ public record JPAOffsetPageRequest(int offset, int limit, Sort sort) implements
      * @param offset zero-based offset.
      * @param limit  the size of the page to be returned.
      */
-    public JPAOffsetPageRequest(int offset, int limit) {
+    public JPAOffsetPageRequest(long offset, int limit) {
         this(offset, limit, Sort.unsorted());
     }
 
+    /**
+     * Creates a new unsorted {@link JPAOffsetPageRequest} from the given {@link OffsetPageRequest}.
+     *
+     * @param request the offset page request.
+     * @return the equivalent pageable.
+     */
+    public static JPAOffsetPageRequest of(OffsetPageRequest request) {
+        return new JPAOffsetPageRequest(request.offset(), request.limit());
+    }
+
     @Override
     public int getPageNumber() {
-        return offset / limit;
+        return Math.toIntExact(offset / limit);
     }
 
     @Override
@@ -85,7 +96,7 @@ public record JPAOffsetPageRequest(int offset, int limit, Sort sort) implements
 
     @Override
     public Pageable withPage(int pageNumber) {
-        return new JPAOffsetPageRequest((pageNumber - 1) * limit, getPageSize(), getSort());
+        return new JPAOffsetPageRequest((long) (pageNumber - 1) * limit, getPageSize(), getSort());
     }
 
     @Override
@@ -0,0 +1,60 @@
+package com.ia.common.utilities.helper.data.model.pagination;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * KeyRange
+ *
+ * A simple record to represent a range of keys walked with keyset pagination.
+ * The lower bound is exclusive and the upper bound inclusive, a null bound leaves the range open on that side.
+ *
+ * @param lowerKey the exclusive lower bound of the range, null for no lower bound
+ * @param upperKey the inclusive upper bound of the range, null for no upper bound
+ * @param <K>      the type of the key
+ */
+public record KeyRange<K>(K lowerKey, K upperKey) {
+
+    /***
+     * Creates a range covering the whole key space.
+     *
+     * @param <K> the type of the key
+     * @return an unbounded key range
+     */
+    public static <K> KeyRange<K> unbounded() {
+        return new KeyRange<>(null, null);
+    }
+
+    /***
+     * Splits the numeric key space between the provided minimum and maximum keys into contiguous ranges of equal width.
+     * The first range is open below and the last one open above, so keys outside of the bounds are still covered.
+     *
+     * @param minKey     the minimum key of the key space
+     * @param maxKey     the maximum key of the key space
+     * @param partitions the number of ranges to create
+     * @return the contiguous key ranges covering the key space
+     */
+    public static List<KeyRange<Long>> split(long minKey, long maxKey, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must not be less than one!");
+        }
+        if (minKey > maxKey) {
+            throw new IllegalArgumentException("Min key must be less than or equal to max key");
+        }
+        // The bounds are computed exactly on big integers, the span of the whole long range overflowing a long
+        final BigInteger span = BigInteger.valueOf(maxKey).subtract(BigInteger.valueOf(minKey));
+        final List<KeyRange<Long>> ranges = new ArrayList<>(partitions);
+        Long lowerKey = null;
+        for (int i = 1; i < partitions; i++) {
+            final BigInteger offset = span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitions));
+            final long upperKey = BigInteger.valueOf(minKey).add(offset).longValueExact();
+            if (lowerKey == null || upperKey > lowerKey) {
+                ranges.add(new KeyRange<>(lowerKey, upperKey));
+                lowerKey = upperKey;
+            }
+        }
+        ranges.add(new KeyRange<>(lowerKey, null));
+        return ranges;
+    }
+}
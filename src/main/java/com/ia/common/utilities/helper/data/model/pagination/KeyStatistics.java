@@ -0,0 +1,48 @@
+package com.ia.common.utilities.helper.data.model.pagination;
+
+import java.util.List;
+
+/***
+ * KeyStatistics
+ *
+ * A record holding the statistics of a numeric key column, as returned by min/max queries and, optionally,
+ * by the equi-depth histogram of the database planner (such as {@code pg_stats.histogram_bounds}).
+ * Consecutive histogram bounds delimit buckets holding roughly the same number of rows,
+ * so they describe the distribution of the keys when it is skewed. Timestamps are described by their epoch value.
+ *
+ * @param minKey          the minimum key of the column
+ * @param maxKey          the maximum key of the column
+ * @param histogramBounds the ascending bounds of the equi-depth histogram buckets, empty when no histogram is available
+ */
+public record KeyStatistics(long minKey, long maxKey, List<Long> histogramBounds) {
+
+    public KeyStatistics {
+        if (minKey > maxKey) {
+            throw new IllegalArgumentException("Min key must be less than or equal to max key");
+        }
+        histogramBounds = histogramBounds == null ? List.of() : List.copyOf(histogramBounds);
+        for (int i = 1; i < histogramBounds.size(); i++) {
+            if (histogramBounds.get(i) < histogramBounds.get(i - 1)) {
+                throw new IllegalArgumentException("Histogram bounds must be in ascending order");
+            }
+        }
+    }
+
+    /***
+     * Creates the statistics of a key column from its minimum and maximum keys only.
+     *
+     * @param minKey the minimum key of the column
+     * @param maxKey the maximum key of the column
+     * @return the statistics without histogram
+     */
+    public static KeyStatistics of(long minKey, long maxKey) {
+        return new KeyStatistics(minKey, maxKey, List.of());
+    }
+
+    /***
+     * @return true if the histogram holds at least one bucket
+     */
+    public boolean hasHistogram() {
+        return histogramBounds.size() > 1;
+    }
+}
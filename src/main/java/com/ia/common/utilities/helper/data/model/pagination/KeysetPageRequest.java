@@ -0,0 +1,44 @@
+package com.ia.common.utilities.helper.data.model.pagination;
+
+/***
+ * KeysetPageRequest
+ *
+ * A simple record to represent a page request using keyset (seek) pagination.
+ * The page is expected to be fetched with {@code WHERE key > lowerKey AND key <= upperKey ORDER BY key LIMIT limit},
+ * so the database seeks directly to the first key instead of scanning and discarding the previous rows.
+ *
+ * @param lowerKey the exclusive lower bound of the page, null to start from the first key
+ * @param upperKey the inclusive upper bound of the page, null for no upper bound
+ * @param limit    the maximum number of items to return
+ * @param <K>      the type of the key
+ */
+public record KeysetPageRequest<K>(K lowerKey, K upperKey, int limit) {
+
+    public KeysetPageRequest {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must not be less than one!");
+        }
+    }
+
+    /***
+     * Creates the request of the first page of the provided key range.
+     *
+     * @param range the key range to walk
+     * @param limit the maximum number of items to return
+     * @param <K>   the type of the key
+     * @return the request of the first page of the range
+     */
+    public static <K> KeysetPageRequest<K> first(KeyRange<K> range, int limit) {
+        return new KeysetPageRequest<>(range.lowerKey(), range.upperKey(), limit);
+    }
+
+    /***
+     * Creates the request of the page following the provided last key, within the same upper bound.
+     *
+     * @param lastKey the key of the last item of the current page
+     * @return the request of the next page
+     */
+    public KeysetPageRequest<K> next(K lastKey) {
+        return new KeysetPageRequest<>(lastKey, upperKey, limit);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ia.common.utilities.helper.data.model.pagination;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/***
+ * OffsetRange
+ *
+ * A simple record to represent a contiguous range of offsets.
+ *
+ * @param from the first offset of the range (inclusive)
+ * @param to   the end of the range (exclusive)
+ */
+public record OffsetRange(long from, long to) {
+
+    public OffsetRange {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Offset range must satisfy 0 <= from <= to!");
+        }
+    }
+
+    /***
+     * Creates the offset range covered by the provided page request.
+     *
+     * @param request the page request
+     * @return the offset range covered by the request
+     */
+    public static OffsetRange of(OffsetPageRequest request) {
+        return new OffsetRange(request.offset(), request.offset() + request.limit());
+    }
+
+    /***
+     * Computes the ranges of the provided bounds that are not covered by any of the provided ranges.
+     *
+     * @param from    the first offset of the bounds (inclusive)
+     * @param to      the end of the bounds (exclusive)
+     * @param covered the ranges already covered, in any order and possibly overlapping
+     * @return the uncovered ranges in offset order
+     */
+    public static List<OffsetRange> gaps(long from, long to, Collection<OffsetRange> covered) {
+        final List<OffsetRange> gaps = new ArrayList<>();
+        long cursor = from;
+        for (final var range : covered.stream().sorted(Comparator.comparingLong(OffsetRange::from)).toList()) {
+            if (cursor >= to) {
+                break;
+            }
+            if (range.from() > cursor) {
+                gaps.add(new OffsetRange(cursor, Math.min(range.from(), to)));
+            }
+            cursor = Math.max(cursor, range.to());
+        }
+        if (cursor < to) {
+            gaps.add(new OffsetRange(cursor, to));
+        }
+        return gaps;
+    }
+
+    /***
+     * @return the number of offsets in the range
+     */
+    public long length() {
+        return to - from;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ia.common.utilities.helper.data.model.pagination;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.ia.common.utilities.helper.SerializerHelper;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/***
+ * PageCursor
+ *
+ * A record to represent the position reached by a client walking a large dataset, so the next page can be requested
+ * across stateless calls. The cursor holds the last seen key, which lets the next page be fetched with keyset pagination
+ * instead of scanning the skipped rows, and the offset reached, for data sources which only support offset pagination.
+ * The cursor is exchanged with the clients as an opaque URL-safe token.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     String token = new PageCursor&lt;&gt;(lastEvent.getId(), 1_000_000L, 500).encode();
+ *     PageCursor&lt;Long&gt; cursor = PageCursor.decode(token, new TypeReference&lt;&gt;() {});
+ *     List&lt;Event&gt; events = repository.findPage(cursor.toKeysetRequest());
+ * </pre>
+ *
+ * @param lastKey the key of the last item returned to the client, null before the first page
+ * @param offset  the number of items returned to the client so far
+ * @param limit   the maximum number of items of the next page
+ * @param <K>     the type of the key
+ */
+public record PageCursor<K>(K lastKey, long offset, int limit) implements Serializable {
+
+    public PageCursor {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must not be less than one!");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset index must not be less than zero!");
+        }
+    }
+
+    /***
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token received from the client
+     * @param type  the type of the cursor, holding the type of the key
+     * @param <K>   the type of the key
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor token
+     */
+    public static <K> PageCursor<K> decode(String token, TypeReference<PageCursor<K>> type) {
+        final PageCursor<K> cursor;
+        try {
+            final String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            cursor = SerializerHelper.deserialize(json, () -> type);
+        } catch (RuntimeException e) {
+            // Malformed Base64 and valid Base64 holding no valid cursor are both invalid tokens sent by the client
+            throw new IllegalArgumentException("Invalid page cursor token!", e);
+        }
+        if (cursor == null) {
+            throw new IllegalArgumentException("Invalid page cursor token!");
+        }
+        return cursor;
+    }
+
+    /***
+     * @return the opaque URL-safe token of the cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(SerializerHelper.serialize(this).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /***
+     * Creates the cursor following a page returned to the client.
+     *
+     * @param lastKey the key of the last item of the page
+     * @param items   the number of items of the page
+     * @return the cursor of the next page
+     */
+    public PageCursor<K> next(K lastKey, int items) {
+        return new PageCursor<>(lastKey, offset + items, limit);
+    }
+
+    /***
+     * @return the keyset request of the next page, seeking directly after the last seen key
+     */
+    public KeysetPageRequest<K> toKeysetRequest() {
+        return new KeysetPageRequest<>(lastKey, null, limit);
+    }
+
+    /***
+     * @return the offset request of the next page, for data sources without a usable key
+     */
+    public JPAOffsetPageRequest toPageable() {
+        return new JPAOffsetPageRequest(offset, limit);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ia.common.utilities.helper.math;
+
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/***
+ * Utility class planning the partitions of an offset range so every partition has the same estimated cost,
+ * rather than the same number of rows as the offsets of {@link SequenceGenerator#arithmeticSequence(long, long, int)}.
+ * When the rows are skewed, such as recent wide rows next to narrow archived ones, equal row counts leave one partition
+ * much slower than the others, and the whole parallel run waits for it.
+ * The cost of a range is given by a {@link CostModel}, either a callback estimating any range or a sampled histogram.
+ * Every partition bound is found by a binary search over the cumulative cost from the start of the range,
+ * so the estimation errors do not add up from one partition to the next.
+ * @see CostModel#histogram(List, List)
+ * @author Martin Blaise Signe
+ */
+@UtilityClass
+@Slf4j
+public class CostBalancedPartitioner {
+
+    /***
+     * Plans the partitions of the offset range [from, to).
+     *
+     * @param from       the first offset of the range (inclusive)
+     * @param to         the end of the range (exclusive)
+     * @param partitions the maximum number of partitions to create
+     * @param costModel  the model estimating the cost of a range, never decreasing as the range grows
+     * @return the contiguous partitions covering the range in offset order, fewer than requested when the cost is concentrated on too few offsets
+     */
+    public List<OffsetRange> partition(long from, long to, int partitions, CostModel costModel) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must not be less than one!");
+        }
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Offset range must satisfy 0 <= from <= to!");
+        }
+        final double totalCost = costModel.cost(from, to);
+        if (to == from || !(totalCost > 0)) {
+            // Without any cost to balance, fall back to partitions of equal row count
+            return equalPartitions(from, to, partitions);
+        }
+        final List<OffsetRange> ranges = new ArrayList<>(partitions);
+        long lowerBound = from;
+        for (int i = 1; i < partitions && lowerBound < to; i++) {
+            final long upperBound = boundOf(from, lowerBound, to, totalCost * i / partitions, costModel);
+            if (upperBound > lowerBound && upperBound < to) {
+                ranges.add(new OffsetRange(lowerBound, upperBound));
+                lowerBound = upperBound;
+            }
+        }
+        ranges.add(new OffsetRange(lowerBound, to));
+        log.debug("Planned {} cost balanced partitions . total cost: {}", ranges.size(), totalCost);
+        return ranges;
+    }
+
+    /***
+     * Finds the smallest offset whose cumulative cost from the start of the range reaches the target cost.
+     */
+    private long boundOf(long from, long lowerBound, long to, double targetCost, CostModel costModel) {
+        long low = lowerBound;
+        long high = to;
+        while (low < high) {
+            final long middle = low + (high - low) / 2;
+            if (costModel.cost(from, middle) < targetCost) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<OffsetRange> equalPartitions(long from, long to, int partitions) {
+        final long size = Math.max(1, Math.ceilDiv(to - from, partitions));
+        final List<OffsetRange> ranges = new ArrayList<>(partitions);
+        for (long lowerBound = from; lowerBound < to; lowerBound += size) {
+            ranges.add(new OffsetRange(lowerBound, Math.min(to, lowerBound + size)));
+        }
+        return ranges.isEmpty() ? List.of(new OffsetRange(from, to)) : ranges;
+    }
+
+    /***
+     * A model estimating the cost of fetching a range of offsets, such as its number of bytes or its expected latency.
+     * The cost must never decrease when the range grows.
+     */
+    @FunctionalInterface
+    public interface CostModel {
+
+        /***
+         * @param from the first offset of the range (inclusive)
+         * @param to   the end of the range (exclusive)
+         * @return the estimated cost of the range
+         */
+        double cost(long from, long to);
+
+        /***
+         * Creates a cost model from a sampled histogram, the cost being assumed evenly spread within a bucket.
+         * The offsets before the first bound or after the last one cost as much as the nearest bucket.
+         *
+         * @param bounds      the ascending bounds of the buckets
+         * @param bucketCosts the non-negative cost of every bucket, one less than the bounds
+         * @return the cost model of the histogram
+         */
+        static CostModel histogram(List<Long> bounds, List<Double> bucketCosts) {
+            if (bounds.size() < 2 || bucketCosts.size() != bounds.size() - 1) {
+                throw new IllegalArgumentException("Histogram must hold one cost per bucket and at least one bucket!");
+            }
+            final long[] offsets = new long[bounds.size()];
+            final double[] cumulativeCosts = new double[bounds.size()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = bounds.get(i);
+                if (i > 0) {
+                    if (offsets[i] <= offsets[i - 1] || !(bucketCosts.get(i - 1) >= 0)) {
+                        throw new IllegalArgumentException("Histogram bounds must be strictly ascending and costs not less than zero!");
+                    }
+                    cumulativeCosts[i] = cumulativeCosts[i - 1] + bucketCosts.get(i - 1);
+                }
+            }
+            return (from, to) -> cumulativeCost(offsets, cumulativeCosts, to) - cumulativeCost(offsets, cumulativeCosts, from);
+        }
+
+        private static double cumulativeCost(long[] offsets, double[] cumulativeCosts, long offset) {
+            final int last = offsets.length - 1;
+            final int bucket;
+            if (offset <= offsets[0]) {
+                bucket = 0;
+            } else if (offset >= offsets[last]) {
+                bucket = last - 1;
+            } else {
+                final int index = Arrays.binarySearch(offsets, offset);
+                bucket = index >= 0 ? index : -index - 2;
+            }
+            final double density = (cumulativeCosts[bucket + 1] - cumulativeCosts[bucket]) / (offsets[bucket + 1] - offsets[bucket]);
+            return cumulativeCosts[bucket] + density * (offset - offsets[bucket]);
+        }
+    }
+}
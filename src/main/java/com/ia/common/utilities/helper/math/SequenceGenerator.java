@@ -2,31 +2,139 @@ package com.ia.common.utilities.helper.math;
 
 import lombok.experimental.UtilityClass;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
 import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /***
  * Utility class for generating sequences of numbers.
- * Currently, supports arithmetic sequences.
+ * Currently, supports arithmetic sequences, either collected in a list or generated lazily,
+ * in which case no element is computed before it is consumed and the sequence splits evenly for parallel streams.
  * @see #arithmeticSequence(long, long, int)
+ * @see #arithmeticStream(long, long, int)
  * @author Martin Blaise Signe
  */
 @UtilityClass
 public class SequenceGenerator {
 
     public List<Long> arithmeticSequence(long startOffset, long length, int diff) {
+        return arithmeticStream(startOffset, length, diff).boxed().toList();
+    }
+
+    /***
+     * Generates lazily the arithmetic sequence starting at the start offset and increasing by diff,
+     * the last element being capped at the length, as {@link #arithmeticSequence(long, long, int)} does.
+     * The elements are computed from their index, so the sequence can end near {@link Long#MAX_VALUE} without overflowing.
+     *
+     * @param startOffset the first element of the sequence
+     * @param length      the last element of the sequence
+     * @param diff        the difference between two consecutive elements
+     * @return a sequential stream of the elements, which can be made parallel
+     * @throws IllegalArgumentException if diff is not positive, or if the start offset is greater than the length
+     * @throws ArithmeticException      if the sequence spans more than {@link Long#MAX_VALUE}
+     */
+    public LongStream arithmeticStream(long startOffset, long length, int diff) {
+        return StreamSupport.longStream(arithmeticSpliterator(startOffset, length, diff), false);
+    }
+
+    /***
+     * Creates a spliterator over the arithmetic sequence described in {@link #arithmeticStream(long, long, int)},
+     * which splits its range of indexes in halves, so every fork-join task receives the same number of elements.
+     *
+     * @param startOffset the first element of the sequence
+     * @param length      the last element of the sequence
+     * @param diff        the difference between two consecutive elements
+     * @return a sized spliterator over the elements
+     */
+    public Spliterator.OfLong arithmeticSpliterator(long startOffset, long length, int diff) {
         if (diff <= 0) {
             throw new IllegalArgumentException("Diff must be greater than 0");
         }
         if (startOffset > length) {
             throw new IllegalArgumentException("Start must be less than or equal to end");
         }
-        final long partitionSize = Math.ceilDiv(length - startOffset, diff);
-        return LongStream.rangeClosed(0, partitionSize).mapToObj(i -> nextOffset(i, startOffset, length, diff)).toList();
+        final long lastIndex = Math.ceilDiv(Math.subtractExact(length, startOffset), diff);
+        if (lastIndex == Long.MAX_VALUE) {
+            throw new ArithmeticException("Sequence size overflows a long");
+        }
+        return new ArithmeticSpliterator(startOffset, length, diff, 0, lastIndex + 1);
     }
 
-    private long nextOffset(long index, long startOffset, long length, int diff) {
-        final long nextOffset = startOffset + index * diff;
-        return Math.min(nextOffset, length);
+    /***
+     * A spliterator over the indexes [index, fence) of an arithmetic sequence.
+     * Every index below the last one maps to an element lower than the length, so the element never overflows.
+     */
+    private static final class ArithmeticSpliterator implements Spliterator.OfLong {
+
+        private final long startOffset;
+        private final long length;
+        private final int diff;
+        private final long lastIndex;
+        private long index;
+        private final long fence;
+
+        private ArithmeticSpliterator(long startOffset, long length, int diff, long index, long fence) {
+            this(startOffset, length, diff, index, fence, fence - 1);
+        }
+
+        private ArithmeticSpliterator(long startOffset, long length, int diff, long index, long fence, long lastIndex) {
+            this.startOffset = startOffset;
+            this.length = length;
+            this.diff = diff;
+            this.index = index;
+            this.fence = fence;
+            this.lastIndex = lastIndex;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(elementAt(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            final long end = fence;
+            for (long i = index; i < end; i++) {
+                action.accept(elementAt(i));
+            }
+            index = end;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            final long middle = index + (fence - index) / 2;
+            if (middle <= index) {
+                return null;
+            }
+            final var prefix = new ArithmeticSpliterator(startOffset, length, diff, index, middle, lastIndex);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+
+        private long elementAt(long i) {
+            return i == lastIndex ? length : startOffset + i * diff;
+        }
     }
 }
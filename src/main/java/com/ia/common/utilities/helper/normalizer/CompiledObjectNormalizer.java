@@ -0,0 +1,234 @@
+package com.ia.common.utilities.helper.normalizer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/***
+ * An ObjectNormalizer flattening Serializable objects into a single-level map with dot-separated keys,
+ * as {@link DefaultObjectNormalizer} does, without converting every object into an intermediate Jackson tree.
+ * The first time a class is normalized, a flattening plan is compiled for it: one {@link MethodHandle} per bean getter
+ * or record accessor, along with the dotted key of the property, so no key is formatted again afterwards.
+ * The plans of the nested objects are compiled the same way for the key of their parent, and all plans are cached per class.
+ * The objects found in maps, whose keys are only known at runtime, are flattened by the plan of their class compiled without prefix,
+ * their keys being prefixed with the key of the map entry.
+ * The leaf values are written directly into a map presized from the previous results of the plan.
+ * <p>
+ * The properties are read from the public getters and record accessors, Jackson annotations are not applied,
+ * and the leaf values are kept as they are rather than converted to their JSON representation,
+ * so dates or enums remain dates or enums. Maps are flattened by their keys, a null or empty nested object maps its key to null,
+ * and collections and arrays are leaves. The objects must not reference themselves.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     CompiledObjectNormalizer normalizer = new CompiledObjectNormalizer();
+ *     Map&lt;String, Object&gt; normalizedMap = normalizer.normalize(yourSerializableObject);
+ * </pre>
+ *
+ * @see ObjectNormalizer
+ * @see DefaultObjectNormalizer
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+public class CompiledObjectNormalizer implements ObjectNormalizer<Serializable> {
+
+    private static final char KEY_SEPARATOR = '.';
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final List<Class<?>> LEAF_TYPES = List.of(CharSequence.class, Number.class, Boolean.class, Character.class,
+            Enum.class, TemporalAccessor.class, Date.class, UUID.class, Collection.class);
+    // Classes of named modules, such as those of the JDK, are not walked through when they are found at runtime
+    private static final ClassValue<Boolean> RUNTIME_LEAVES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isLeaf(type) || type.getModule().isNamed();
+        }
+    };
+
+    // The plans compiled without prefix, for the normalized objects and for the objects found in maps
+    private static final ClassValue<FlatteningPlan> PLANS = plansFor("");
+
+    @Override
+    public Map<String, Object> normalize(Serializable input) {
+        if (input == null) {
+            return new HashMap<>();
+        }
+        if (input instanceof Map<?, ?> map) {
+            final Map<String, Object> result = HashMap.newHashMap(map.size());
+            flattenMap("", map, result);
+            return result;
+        }
+        if (RUNTIME_LEAVES.get(input.getClass())) {
+            throw new IllegalArgumentException("Unable to normalize a value without properties: " + input.getClass().getName());
+        }
+        return PLANS.get(input.getClass()).flatten(input);
+    }
+
+    private static ClassValue<FlatteningPlan> plansFor(String prefix) {
+        return new ClassValue<>() {
+            @Override
+            protected FlatteningPlan computeValue(Class<?> type) {
+                return compile(type, prefix);
+            }
+        };
+    }
+
+    private static FlatteningPlan compile(Class<?> type, String prefix) {
+        final List<Property> properties = new ArrayList<>();
+        if (type.isRecord()) {
+            for (final RecordComponent component : type.getRecordComponents()) {
+                properties.add(property(prefix, component.getName(), component.getAccessor()));
+            }
+        } else {
+            try {
+                for (final PropertyDescriptor descriptor : Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors()) {
+                    if (descriptor.getReadMethod() != null) {
+                        properties.add(property(prefix, descriptor.getName(), descriptor.getReadMethod()));
+                    }
+                }
+            } catch (IntrospectionException e) {
+                log.error("Unable to read the properties of the provided class. provided class ={}", type.getName(), e);
+                throw new RuntimeException("Error during normalization", e);
+            }
+        }
+        log.debug("Compiled flattening plan . class: {}, prefix: {}, properties: {}", type.getName(), prefix, properties.size());
+        return new FlatteningPlan(properties.toArray(Property[]::new));
+    }
+
+    private static Property property(String prefix, String name, Method getter) {
+        final String key = prefix.isEmpty() ? name : prefix + KEY_SEPARATOR + name;
+        try {
+            getter.trySetAccessible();
+            final MethodHandle handle = MethodHandles.lookup().unreflect(getter).asType(GETTER_TYPE);
+            final Class<?> type = getter.getReturnType();
+            return new Property(key, handle, isLeaf(type), isLeaf(type) ? null : plansFor(key));
+        } catch (IllegalAccessException e) {
+            log.error("Unable to access the provided getter. provided getter ={}", getter, e);
+            throw new RuntimeException("Error during normalization", e);
+        }
+    }
+
+    private static boolean isLeaf(Class<?> type) {
+        if (type.isPrimitive() || type.isArray()) {
+            return true;
+        }
+        for (final Class<?> leafType : LEAF_TYPES) {
+            if (leafType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void flattenMap(String prefix, Map<?, ?> map, Map<String, Object> result) {
+        if (map.isEmpty() && !prefix.isEmpty()) {
+            result.put(prefix, null);
+        }
+        for (final var entry : map.entrySet()) {
+            final String key = prefix.isEmpty() ? String.valueOf(entry.getKey()) : prefix + KEY_SEPARATOR + entry.getKey();
+            write(key, entry.getValue(), null, "", result);
+        }
+    }
+
+    /***
+     * Writes a value which is not known to be a leaf from its declared type, flattening it when it is a map or an object.
+     * The plans compiled for the key are used when available, the plan of the class compiled without prefix being otherwise
+     * applied with the key as prefix.
+     *
+     * @param prefix the prefix of the keys of the plans compiled for the key, empty when they hold the full keys
+     */
+    private static void write(String key, Object value, ClassValue<FlatteningPlan> nestedPlans, String prefix, Map<String, Object> result) {
+        if (value == null) {
+            result.put(key, null);
+        } else if (value instanceof Map<?, ?> map) {
+            flattenMap(key, map, result);
+        } else if (RUNTIME_LEAVES.get(value.getClass())) {
+            result.put(key, value);
+        } else {
+            final FlatteningPlan plan = nestedPlans == null ? PLANS.get(value.getClass()) : nestedPlans.get(value.getClass());
+            if (plan.properties().length == 0) {
+                result.put(key, null);
+            } else {
+                plan.flatten(value, nestedPlans == null ? key : prefix, result);
+            }
+        }
+    }
+
+    /***
+     * The compiled properties of a class at a given key prefix.
+     */
+    private static final class FlatteningPlan {
+
+        private final Property[] properties;
+        private volatile int expectedSize;
+
+        private FlatteningPlan(Property[] properties) {
+            this.properties = properties;
+            this.expectedSize = properties.length;
+        }
+
+        private Property[] properties() {
+            return properties;
+        }
+
+        private Map<String, Object> flatten(Object target) {
+            final Map<String, Object> result = HashMap.newHashMap(expectedSize);
+            flatten(target, "", result);
+            // Nested maps and polymorphic values may add keys, so the next map is presized from the largest result
+            if (result.size() > expectedSize) {
+                expectedSize = result.size();
+            }
+            return result;
+        }
+
+        /***
+         * @param prefix the prefix of the keys of the plan, empty when the plan has been compiled for the full keys
+         */
+        private void flatten(Object target, String prefix, Map<String, Object> result) {
+            for (final Property property : properties) {
+                final Object value = property.read(target);
+                final String key = prefix.isEmpty() ? property.key() : prefix + KEY_SEPARATOR + property.key();
+                if (property.leaf()) {
+                    result.put(key, value);
+                } else {
+                    write(key, value, property.nestedPlans(), prefix, result);
+                }
+            }
+        }
+    }
+
+    /***
+     * A property of a class, with its full dotted key and the handle of its getter.
+     *
+     * @param key         the dotted key of the property
+     * @param getter      the handle of the getter, adapted to the (Object)Object type
+     * @param leaf        true if the declared type of the property is a leaf type
+     * @param nestedPlans the plans of the classes of the property values, compiled for the key of the property
+     */
+    private record Property(String key, MethodHandle getter, boolean leaf, ClassValue<FlatteningPlan> nestedPlans) {
+
+        private Object read(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                log.error("Unable to read the property {} of the provided object", key, e);
+                throw new RuntimeException("Error during normalization", e);
+            }
+        }
+    }
+}
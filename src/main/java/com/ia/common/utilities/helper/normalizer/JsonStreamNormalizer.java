@@ -0,0 +1,207 @@
+package com.ia.common.utilities.helper.normalizer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/***
+ * An ObjectNormalizer flattening JSON documents into a single-level map with dot-separated keys,
+ * with the result {@link DefaultObjectNormalizer} gives for the deserialized document, but without deserializing it first.
+ * The document is read as a stream of Jackson tokens, and every leaf is emitted as a path and value pair as soon as it is read,
+ * so the nested maps of the document are never built. The pairs can be collected into a map or handed to a callback,
+ * for instance to compare them or write them out without holding the whole flattened document.
+ * The document can be read from a String, a byte array, an InputStream or a file, which is memory-mapped when it fits in a single mapping.
+ * <p>
+ * As with {@link DefaultObjectNormalizer}, an empty nested object maps its path to null and arrays are leaves,
+ * holding lists of their values. The document must be a JSON object.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     JsonStreamNormalizer normalizer = new JsonStreamNormalizer();
+ *     Map&lt;String, Object&gt; normalizedMap = normalizer.normalize(json);
+ *     normalizer.normalize(Path.of("extract.json"), (path, value) -&gt; writer.write(path, value));
+ * </pre>
+ *
+ * @see ObjectNormalizer
+ * @see DefaultObjectNormalizer
+ * @author Martin Blaise Signe
+ */
+@Slf4j
+public class JsonStreamNormalizer implements ObjectNormalizer<String> {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final char KEY_SEPARATOR = '.';
+
+    @Override
+    public Map<String, Object> normalize(String json) {
+        final Map<String, Object> result = new HashMap<>();
+        if (json != null) {
+            normalize(json, result::put);
+        }
+        return result;
+    }
+
+    /***
+     * Flattens a JSON document held in a byte array.
+     *
+     * @param json the UTF-8 encoded JSON document
+     * @return a map of the paths to the leaf values
+     */
+    public Map<String, Object> normalize(byte[] json) {
+        final Map<String, Object> result = new HashMap<>();
+        if (json != null) {
+            normalize(json, result::put);
+        }
+        return result;
+    }
+
+    /***
+     * Emits the path and value pairs of a JSON document to the callback, in document order.
+     *
+     * @param json     the JSON document
+     * @param consumer the callback receiving every path and value pair
+     */
+    public void normalize(String json, BiConsumer<String, Object> consumer) {
+        try (final JsonParser parser = FACTORY.createParser(json)) {
+            normalize(parser, consumer);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /***
+     * Emits the path and value pairs of a JSON document held in a byte array to the callback, in document order.
+     *
+     * @param json     the UTF-8 encoded JSON document
+     * @param consumer the callback receiving every path and value pair
+     */
+    public void normalize(byte[] json, BiConsumer<String, Object> consumer) {
+        try (final JsonParser parser = FACTORY.createParser(json)) {
+            normalize(parser, consumer);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /***
+     * Emits the path and value pairs of a JSON document read from a stream to the callback, in document order.
+     * The stream is not closed.
+     *
+     * @param json     the stream of the JSON document
+     * @param consumer the callback receiving every path and value pair
+     */
+    public void normalize(InputStream json, BiConsumer<String, Object> consumer) {
+        try (final JsonParser parser = FACTORY.createParser(json)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            normalize(parser, consumer);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /***
+     * Emits the path and value pairs of a JSON file to the callback, in document order.
+     * The file is memory-mapped unless it is larger than a single mapping, in which case it is streamed.
+     *
+     * @param file     the JSON file
+     * @param consumer the callback receiving every path and value pair
+     */
+    public void normalize(Path file, BiConsumer<String, Object> consumer) {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            try (final InputStream json = size <= Integer.MAX_VALUE
+                    ? new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size))
+                    : Files.newInputStream(file)) {
+                normalize(json, consumer);
+            }
+        } catch (IOException e) {
+            log.error("Unable to read the provided JSON file. provided file ={}", file, e);
+            throw new RuntimeException("Error during normalization", e);
+        }
+    }
+
+    /***
+     * Emits the path and value pairs of the JSON document read by the parser to the callback, in document order.
+     * The parser is left positioned at the end of the document and is not closed.
+     *
+     * @param parser   the parser positioned before, or at, the start of the document
+     * @param consumer the callback receiving every path and value pair
+     * @throws IOException              if the document cannot be read
+     * @throws IllegalArgumentException if the document is not a JSON object
+     */
+    public void normalize(JsonParser parser, BiConsumer<String, Object> consumer) throws IOException {
+        final JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("JSON document must be an object, found " + token);
+        }
+        flattenObject(parser, "", consumer);
+    }
+
+    private void flattenObject(JsonParser parser, String prefix, BiConsumer<String, Object> consumer) throws IOException {
+        boolean empty = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            empty = false;
+            final String name = parser.currentName();
+            final String path = prefix.isEmpty() ? name : prefix + KEY_SEPARATOR + name;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                flattenObject(parser, path, consumer);
+            } else {
+                consumer.accept(path, readValue(parser));
+            }
+        }
+        if (empty && !prefix.isEmpty()) {
+            consumer.accept(prefix, null);
+        }
+    }
+
+    /***
+     * Reads the value at the current token, arrays and the objects they hold being read whole as lists and maps.
+     */
+    private Object readValue(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case START_ARRAY -> {
+                final List<Object> values = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    values.add(readValue(parser));
+                }
+                yield values;
+            }
+            case START_OBJECT -> {
+                final Map<String, Object> values = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String name = parser.currentName();
+                    parser.nextToken();
+                    values.put(name, readValue(parser));
+                }
+                yield values;
+            }
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> throw new IllegalArgumentException("Unexpected JSON token " + parser.currentToken());
+        };
+    }
+
+    private RuntimeException failure(IOException e) {
+        log.error("Unable to read the provided JSON document", e);
+        return new RuntimeException("Error during normalization", e);
+    }
+}
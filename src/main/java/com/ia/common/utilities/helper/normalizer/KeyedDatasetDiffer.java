@@ -0,0 +1,289 @@
+package com.ia.common.utilities.helper.normalizer;
+
+import com.ia.common.utilities.helper.normalizer.ObjectNormalizer.ObjectDiffDetails;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/***
+ * Compares two snapshots of a dataset, such as the records fetched yesterday and today, matching the records by key.
+ * Every record only found in the actual snapshot is reported as inserted, every record only found in the expected snapshot
+ * as deleted, and every pair of records of the same key whose difference extractor reports differences as changed,
+ * along with the per-field {@link ObjectDiffDetails}.
+ * <ul>
+ *     <li>{@link #diff(Collection, Collection)} indexes the expected records by key in a hash map and compares the pairs
+ *     in parallel across the cores, both snapshots being held in memory</li>
+ *     <li>{@link #diffSorted(Stream, Stream, Consumer)} merges two streams sorted by key, such as the results of two ordered queries
+ *     or two sorted extract files, so only a batch of records is held in memory, the batches being compared in parallel</li>
+ * </ul>
+ * The keys must be unique within a snapshot. The difference extractor is called concurrently and must be thread-safe,
+ * such as {@link ObjectNormalizer#differenceExtractor()} or {@link MerkleDiffEngine#differenceExtractor()}.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     KeyedDatasetDiffer&lt;String, Trade&gt; differ = KeyedDatasetDiffer.&lt;String, Trade&gt;builder()
+ *             .keyProvider(Trade::getReference)
+ *             .differenceExtractor(normalizer.differenceExtractor())
+ *             .keyComparator(Comparator.naturalOrder())
+ *             .build();
+ *     differ.diffSorted(todayExtract.lines().map(Trade::parse), yesterdayExtract.lines().map(Trade::parse), report::write);
+ * </pre>
+ *
+ * @author Martin Blaise Signe
+ * @param <K> the type of keys matching the records
+ * @param <T> the type of the records
+ */
+@Slf4j
+@Getter
+@Builder
+public class KeyedDatasetDiffer<K, T> {
+
+    /***
+     * Default number of records compared in parallel by a streaming diff.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4_096;
+
+    /***
+     * A function that provides the key of each record.
+     */
+    private final Function<T, K> keyProvider;
+
+    /***
+     * A thread-safe function returning the differences between an actual and an expected record, empty when they are equal.
+     */
+    private final BiFunction<T, T, Map<String, ObjectDiffDetails>> differenceExtractor;
+
+    /***
+     * The order of the keys of the sorted inputs, only required by the streaming diff.
+     */
+    private final Comparator<? super K> keyComparator;
+
+    /***
+     * The number of records of the sorted inputs compared in parallel by the streaming diff.
+     */
+    @Builder.Default
+    private final int batchSize = DEFAULT_BATCH_SIZE;
+
+    private KeyedDatasetDiffer(Function<T, K> keyProvider, BiFunction<T, T, Map<String, ObjectDiffDetails>> differenceExtractor,
+                               Comparator<? super K> keyComparator, int batchSize) {
+        if (keyProvider == null || differenceExtractor == null) {
+            throw new IllegalArgumentException("Key provider and difference extractor must be provided!");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must not be less than one!");
+        }
+        this.keyProvider = keyProvider;
+        this.differenceExtractor = differenceExtractor;
+        this.keyComparator = keyComparator;
+        this.batchSize = batchSize;
+    }
+
+    /***
+     * Compares two snapshots held in memory, the pairs of records being compared in parallel.
+     *
+     * @param actual   the records of the actual snapshot
+     * @param expected the records of the expected snapshot
+     * @return the inserted, deleted and changed records
+     * @throws IllegalArgumentException if two records of the same snapshot share a key
+     */
+    public DatasetDiff<K, T> diff(Collection<T> actual, Collection<T> expected) {
+        final Map<K, T> expectedByKey = new ConcurrentHashMap<>(expected.size());
+        expected.parallelStream().forEach(record -> {
+            if (expectedByKey.putIfAbsent(keyProvider.apply(record), record) != null) {
+                throw new IllegalArgumentException("Duplicate expected key: " + keyProvider.apply(record));
+            }
+        });
+        // Every matched expected record is removed, so the records left once the actual records are compared are the deleted ones
+        final Set<K> actualKeys = ConcurrentHashMap.newKeySet(actual.size());
+        final List<RecordDiff<K, T>> actualDiffs = actual.parallelStream()
+                .map(record -> {
+                    final K key = keyProvider.apply(record);
+                    if (!actualKeys.add(key)) {
+                        throw new IllegalArgumentException("Duplicate actual key: " + key);
+                    }
+                    return compare(key, record, expectedByKey.remove(key));
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        final List<RecordDiff<K, T>> inserted = actualDiffs.stream().filter(diff -> diff.type() == ChangeType.INSERTED).toList();
+        final List<RecordDiff<K, T>> changed = actualDiffs.stream().filter(diff -> diff.type() == ChangeType.CHANGED).toList();
+        final List<RecordDiff<K, T>> deleted = expectedByKey.entrySet().stream()
+                .map(entry -> compare(entry.getKey(), null, entry.getValue()))
+                .toList();
+        log.info("Compared datasets . actual: {}, expected: {}, inserted: {}, deleted: {}, changed: {}",
+                actual.size(), expected.size(), inserted.size(), deleted.size(), changed.size());
+        return new DatasetDiff<>(inserted, deleted, changed);
+    }
+
+    /***
+     * Compares two snapshots streamed in ascending key order, handing every difference to the consumer in key order.
+     * The streams are merged on their keys, and the pairs are compared in parallel batch by batch,
+     * so the memory footprint depends on the batch size rather than on the size of the snapshots.
+     *
+     * @param actual   the records of the actual snapshot, sorted by key
+     * @param expected the records of the expected snapshot, sorted by key
+     * @param consumer the consumer receiving the differences, from the calling thread
+     * @return the counts of the compared records
+     * @throws IllegalArgumentException if an input is not sorted by key, holds a key twice or holds a null record
+     * @throws IllegalStateException    if no key comparator has been provided
+     */
+    public DiffSummary diffSorted(Stream<T> actual, Stream<T> expected, Consumer<RecordDiff<K, T>> consumer) {
+        if (keyComparator == null) {
+            throw new IllegalStateException("Key comparator must be provided to compare sorted inputs!");
+        }
+        final SortedInput actualInput = new SortedInput(actual.iterator(), "actual");
+        final SortedInput expectedInput = new SortedInput(expected.iterator(), "expected");
+        final long[] counts = new long[ChangeType.values().length];
+        final List<RecordDiff<K, T>> batch = new ArrayList<>(batchSize);
+        while (actualInput.hasNext() || expectedInput.hasNext()) {
+            final int order = !actualInput.hasNext() ? 1 : !expectedInput.hasNext() ? -1 : keyComparator.compare(actualInput.key, expectedInput.key);
+            final K key = order <= 0 ? actualInput.key : expectedInput.key;
+            // The pending pairs are held as unchanged diffs until the batch compares them
+            batch.add(new RecordDiff<>(key, ChangeType.UNCHANGED, order <= 0 ? actualInput.next() : null, order >= 0 ? expectedInput.next() : null, Map.of()));
+            if (batch.size() == batchSize) {
+                emit(batch, consumer, counts);
+            }
+        }
+        emit(batch, consumer, counts);
+        final var summary = new DiffSummary(counts[ChangeType.INSERTED.ordinal()], counts[ChangeType.DELETED.ordinal()],
+                counts[ChangeType.CHANGED.ordinal()], counts[ChangeType.UNCHANGED.ordinal()]);
+        log.info("Compared sorted datasets . {}", summary);
+        return summary;
+    }
+
+    private void emit(List<RecordDiff<K, T>> batch, Consumer<RecordDiff<K, T>> consumer, long[] counts) {
+        final List<RecordDiff<K, T>> diffs = batch.parallelStream()
+                .map(pending -> {
+                    final RecordDiff<K, T> diff = compare(pending.key(), pending.actual(), pending.expected());
+                    return diff == null ? pending : diff;
+                })
+                .toList();
+        for (final RecordDiff<K, T> diff : diffs) {
+            counts[diff.type().ordinal()]++;
+            if (diff.type() != ChangeType.UNCHANGED) {
+                consumer.accept(diff);
+            }
+        }
+        batch.clear();
+    }
+
+    /***
+     * @return the difference between the records of the key, or null when both records are equal
+     */
+    private RecordDiff<K, T> compare(K key, T actual, T expected) {
+        if (expected == null) {
+            return new RecordDiff<>(key, ChangeType.INSERTED, actual, null, Map.of());
+        }
+        if (actual == null) {
+            return new RecordDiff<>(key, ChangeType.DELETED, null, expected, Map.of());
+        }
+        final Map<String, ObjectDiffDetails> differences = differenceExtractor.apply(actual, expected);
+        return differences.isEmpty() ? null : new RecordDiff<>(key, ChangeType.CHANGED, actual, expected, differences);
+    }
+
+    /***
+     * An input sorted by key, holding its next record and checking that the keys keep increasing.
+     */
+    private final class SortedInput {
+
+        private final Iterator<T> records;
+        private final String name;
+        private boolean pending;
+        private T record;
+        private K key;
+
+        private SortedInput(Iterator<T> records, String name) {
+            this.records = records;
+            this.name = name;
+            advance();
+        }
+
+        private boolean hasNext() {
+            return pending;
+        }
+
+        private T next() {
+            final T current = record;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            final K previousKey = key;
+            pending = records.hasNext();
+            record = pending ? records.next() : null;
+            if (pending && record == null) {
+                throw new IllegalArgumentException("The " + name + " input must not hold null records, found one after " + previousKey);
+            }
+            key = pending ? keyProvider.apply(record) : null;
+            if (pending && previousKey != null && keyComparator.compare(previousKey, key) >= 0) {
+                throw new IllegalArgumentException("The " + name + " input must be sorted by unique keys, found " + key + " after " + previousKey);
+            }
+        }
+    }
+
+    /***
+     * The kinds of difference between two snapshots for a key.
+     */
+    public enum ChangeType {
+        INSERTED, DELETED, CHANGED, UNCHANGED
+    }
+
+    /***
+     * A record to hold the difference between two snapshots for a key.
+     *
+     * @param key         the key of the records
+     * @param type        the kind of difference
+     * @param actual      the actual record, null when deleted
+     * @param expected    the expected record, null when inserted
+     * @param differences the per-field differences of a changed record, empty otherwise
+     * @param <K>         the type of keys
+     * @param <T>         the type of the records
+     */
+    public record RecordDiff<K, T>(K key, ChangeType type, T actual, T expected, Map<String, ObjectDiffDetails> differences) {
+    }
+
+    /***
+     * A record to hold the differences between two snapshots held in memory.
+     *
+     * @param inserted the records only found in the actual snapshot, in the order of the actual snapshot
+     * @param deleted  the records only found in the expected snapshot
+     * @param changed  the records whose fields differ, in the order of the actual snapshot
+     * @param <K>      the type of keys
+     * @param <T>      the type of the records
+     */
+    public record DatasetDiff<K, T>(List<RecordDiff<K, T>> inserted, List<RecordDiff<K, T>> deleted, List<RecordDiff<K, T>> changed) {
+
+        /***
+         * @return true if the snapshots hold the same records
+         */
+        public boolean isEmpty() {
+            return inserted.isEmpty() && deleted.isEmpty() && changed.isEmpty();
+        }
+    }
+
+    /***
+     * A record to hold the summary of a streaming diff, whose differences are handed to a consumer instead of being collected.
+     *
+     * @param inserted  the number of records only found in the actual snapshot
+     * @param deleted   the number of records only found in the expected snapshot
+     * @param changed   the number of records whose fields differ
+     * @param unchanged the number of records equal in both snapshots
+     */
+    public record DiffSummary(long inserted, long deleted, long changed, long unchanged) {
+    }
+}
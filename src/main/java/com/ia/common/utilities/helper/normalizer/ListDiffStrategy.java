@@ -0,0 +1,99 @@
+package com.ia.common.utilities.helper.normalizer;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/***
+ * Describes how a {@link MerkleDiffEngine} compares two lists of the same key.
+ * By default, a list is a leaf compared as a whole, as the flattened maps of the normalizers hold it.
+ * The other strategies compare the lists element by element and report one path per changed element, such as
+ * {@code legs[3].price}, so the differences stay proportional to what changed rather than to the size of the lists.
+ * An element only found in the actual list is reported with a {@code +} before its index or id, such as {@code legs[+7]},
+ * with a null expected value, and an element only found in the expected list with a null actual value.
+ * <ul>
+ *     <li>{@link #positional()} compares the elements of the same index</li>
+ *     <li>{@link #aligned()} aligns the equal elements of ordered lists with a longest common subsequence,
+ *     so an inserted or removed element does not shift the comparison of the elements following it</li>
+ *     <li>{@link #keyed(Function)} compares the elements of the same id, whatever their order</li>
+ * </ul>
+ *
+ * @author Martin Blaise Signe
+ */
+public final class ListDiffStrategy {
+
+    /***
+     * The ways of comparing two lists.
+     */
+    public enum Mode {
+        LEAF, POSITIONAL, ALIGNED, KEYED
+    }
+
+    private static final ListDiffStrategy LEAF = new ListDiffStrategy(Mode.LEAF, null);
+    private static final ListDiffStrategy POSITIONAL = new ListDiffStrategy(Mode.POSITIONAL, null);
+    private static final ListDiffStrategy ALIGNED = new ListDiffStrategy(Mode.ALIGNED, null);
+
+    @Getter
+    private final Mode mode;
+    private final Function<Object, ?> idExtractor;
+
+    private ListDiffStrategy(Mode mode, Function<Object, ?> idExtractor) {
+        this.mode = mode;
+        this.idExtractor = idExtractor;
+    }
+
+    /***
+     * @return the strategy comparing the lists as a whole
+     */
+    public static ListDiffStrategy leaf() {
+        return LEAF;
+    }
+
+    /***
+     * @return the strategy comparing the elements of the same index
+     */
+    public static ListDiffStrategy positional() {
+        return POSITIONAL;
+    }
+
+    /***
+     * @return the strategy aligning the equal elements of ordered lists before comparing the others
+     */
+    public static ListDiffStrategy aligned() {
+        return ALIGNED;
+    }
+
+    /***
+     * Creates the strategy comparing the elements of the same id, the ids of a list being unique and not null.
+     * Comparing two differing lists holding a null or duplicate id fails with an {@link IllegalArgumentException}.
+     *
+     * @param idExtractor a function returning the id of an element, as held by the tree of the object
+     * @return the keyed strategy
+     */
+    public static ListDiffStrategy keyed(Function<Object, ?> idExtractor) {
+        if (idExtractor == null) {
+            throw new IllegalArgumentException("Id extractor must be provided!");
+        }
+        return new ListDiffStrategy(Mode.KEYED, idExtractor);
+    }
+
+    /***
+     * Creates the strategy comparing the elements holding the same value in the provided field, which every element must hold
+     * with a value unique within its list.
+     *
+     * @param field the name of the id field of the elements
+     * @return the keyed strategy
+     */
+    public static ListDiffStrategy keyedBy(String field) {
+        return keyed(element -> element instanceof Map<?, ?> map ? map.get(field) : element);
+    }
+
+    /***
+     * @param element an element of a list
+     * @return the id of the element, for the keyed strategy only
+     */
+    Object idOf(Object element) {
+        return idExtractor.apply(element);
+    }
+}
@@ -0,0 +1,550 @@
+package com.ia.common.utilities.helper.normalizer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.ia.common.utilities.helper.SerializerHelper;
+import com.ia.common.utilities.helper.math.ObjectHelper;
+import com.ia.common.utilities.helper.normalizer.ObjectNormalizer.ObjectDiffDetails;
+import lombok.Builder;
+import lombok.Singular;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/***
+ * A diff engine comparing two objects through the Merkle tree of their structure, with the result of
+ * {@link ObjectNormalizer#differenceExtractor()}: the flattened keys of the expected object whose value differs in the actual object.
+ * Every subtree of an object is hashed once, its hash combining the keys and hashes of its children regardless of their order,
+ * so two subtrees with the same hash hold the same values and the walk skips them without looking inside.
+ * The values are hashed from their content: strings, numbers, booleans, characters, enums and the lists and maps holding them.
+ * Other values are hashed from their class, hash code and string representation, which does not prove them equal,
+ * so they are compared with {@link ObjectHelper#isEqual(Object, Object)} and the subtrees holding them are never skipped.
+ * The hashed trees are cached per object instance, so once an object has been hashed, comparing it again costs
+ * about the size of the difference rather than the size of the object, for instance when many objects are compared to the same reference.
+ * {@link #differs(Object, Object)} stops the walk at the first difference.
+ * <p>
+ * Lists are leaves compared as a whole by default. A {@link ListDiffStrategy} can be set for all the lists, or for the lists
+ * of a given key path, such as {@code legs} or {@code legs.fees} for the lists nested in the elements of {@code legs},
+ * in which case the lists are compared element by element and every changed element is reported under its own path.
+ * <p>
+ * The cached objects are held by weak references and compared by identity, so they must not be modified once compared.
+ * The hashed trees hold the values of the trees but not the trees themselves, so an object whose tree is the object itself,
+ * as with an identity tree provider, is still collected. A tree value referencing its own object keeps it cached until it is evicted.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     MerkleDiffEngine&lt;Trade&gt; engine = MerkleDiffEngine.&lt;Trade&gt;builder()
+ *             .cacheSize(1_000)
+ *             .defaultListStrategy(ListDiffStrategy.aligned())
+ *             .listStrategy("legs", ListDiffStrategy.keyedBy("legId"))
+ *             .build();
+ *     if (engine.differs(bookedTrade, referenceTrade)) {
+ *         Map&lt;String, ObjectDiffDetails&gt; differences = engine.diff(bookedTrade, referenceTrade);
+ *     }
+ * </pre>
+ *
+ * @see ObjectNormalizer#differenceExtractor()
+ * @author Martin Blaise Signe
+ * @param <T> the type of the compared objects
+ */
+public class MerkleDiffEngine<T> {
+
+    private static final char KEY_SEPARATOR = '.';
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final HashCode NULL_HASH = HASH.hashInt(0);
+    private static final HashCode EMPTY_LIST_HASH = HASH.hashInt(1);
+    private static final HashedNode EMPTY_TREE = new HashedNode(NULL_HASH, true, null, Map.of(), null, null);
+    // Beyond this number of frontier cells, the differing middles of two aligned lists are compared by position instead of being aligned
+    private static final long MAX_ALIGNED_CELLS = 1L << 22;
+
+    private final Function<T, Map<String, Object>> treeProvider;
+    private final Cache<T, HashedNode> hashedTrees;
+    private final ListDiffStrategy defaultListStrategy;
+    private final Map<String, ListDiffStrategy> listStrategies;
+    private final boolean listAware;
+
+    /***
+     * @param treeProvider        a function returning the nested maps of an object, the Jackson conversion of the object when null
+     * @param cacheSize           the maximum number of hashed objects kept in cache, none when zero
+     * @param defaultListStrategy the strategy of the lists without a strategy of their own, {@link ListDiffStrategy#leaf()} when null
+     * @param listStrategies      the strategies of the lists by key path, the indexes of the enclosing lists being left out
+     */
+    @Builder
+    private MerkleDiffEngine(Function<T, Map<String, Object>> treeProvider, int cacheSize, ListDiffStrategy defaultListStrategy,
+                             @Singular Map<String, ListDiffStrategy> listStrategies) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be less than zero!");
+        }
+        this.treeProvider = treeProvider == null ? MerkleDiffEngine::jacksonTree : treeProvider;
+        this.hashedTrees = cacheSize == 0 ? null : CacheBuilder.newBuilder().weakKeys().maximumSize(cacheSize).build();
+        this.defaultListStrategy = defaultListStrategy == null ? ListDiffStrategy.leaf() : defaultListStrategy;
+        this.listStrategies = listStrategies == null ? Map.of() : Map.copyOf(listStrategies);
+        this.listAware = this.defaultListStrategy.getMode() != ListDiffStrategy.Mode.LEAF || !this.listStrategies.isEmpty();
+    }
+
+    /***
+     * Creates an engine reading the structure of the objects from their Jackson conversion, as {@link DefaultObjectNormalizer} does.
+     *
+     * @param cacheSize the maximum number of hashed objects kept in cache, none when zero
+     * @param <T>       the type of the compared objects
+     * @return a new engine
+     */
+    public static <T> MerkleDiffEngine<T> create(int cacheSize) {
+        return MerkleDiffEngine.<T>builder().cacheSize(cacheSize).build();
+    }
+
+    /***
+     * Creates an engine reading the structure of the objects from the provided function.
+     *
+     * @param treeProvider a function returning the nested maps of an object, which may be the object itself
+     * @param cacheSize    the maximum number of hashed objects kept in cache, none when zero
+     * @param <T>          the type of the compared objects
+     * @return a new engine
+     */
+    public static <T> MerkleDiffEngine<T> create(Function<T, Map<String, Object>> treeProvider, int cacheSize) {
+        return MerkleDiffEngine.<T>builder().treeProvider(treeProvider).cacheSize(cacheSize).build();
+    }
+
+    /***
+     * Extracts the differences between two objects.
+     *
+     * @param actual   the actual object
+     * @param expected the expected object
+     * @return a map of the flattened keys of the expected object to their differing actual and expected values
+     */
+    public Map<String, ObjectDiffDetails> diff(T actual, T expected) {
+        final Map<String, ObjectDiffDetails> differences = new HashMap<>();
+        walk(hashedTree(actual), hashedTree(expected), "", (key, details) -> {
+            differences.put(key, details);
+            return true;
+        });
+        return differences;
+    }
+
+    /***
+     * Checks whether two objects differ, stopping at the first difference found.
+     *
+     * @param actual   the actual object
+     * @param expected the expected object
+     * @return true if {@link #diff(Object, Object)} would not be empty
+     */
+    public boolean differs(T actual, T expected) {
+        return !walk(hashedTree(actual), hashedTree(expected), "", (key, details) -> false);
+    }
+
+    /***
+     * @return a difference extractor with the contract of {@link ObjectNormalizer#differenceExtractor()}
+     */
+    public BiFunction<T, T, Map<String, ObjectDiffDetails>> differenceExtractor() {
+        return this::diff;
+    }
+
+    private static Map<String, Object> jacksonTree(Object object) {
+        return SerializerHelper.convert(object, new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    private HashedNode hashedTree(T object) {
+        if (object == null) {
+            return EMPTY_TREE;
+        }
+        if (hashedTrees == null) {
+            return hashTree(object);
+        }
+        return hashedTrees.asMap().computeIfAbsent(object, this::hashTree);
+    }
+
+    private HashedNode hashTree(T object) {
+        final Map<String, Object> tree = treeProvider.apply(object);
+        if (tree == null || tree.isEmpty()) {
+            return EMPTY_TREE;
+        }
+        final HashedNode root = hashBranch(tree, "");
+        // The cached root does not hold the tree, which is the weakly cached object itself when the tree provider is the identity
+        return new HashedNode(root.hash(), root.exact(), null, root.children(), null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashedNode hash(Object value, String path) {
+        if (value instanceof Map<?, ?> map && !map.isEmpty()) {
+            return hashBranch((Map<String, Object>) map, path);
+        }
+        if (listAware && value instanceof List<?> list) {
+            final ListDiffStrategy strategy = listStrategies.getOrDefault(path, defaultListStrategy);
+            if (strategy.getMode() != ListDiffStrategy.Mode.LEAF) {
+                return hashList(list, path, strategy);
+            }
+        }
+        // An empty map is flattened to a null value by the normalizers
+        final Object leaf = value instanceof Map<?, ?> ? null : value;
+        if (leaf == null) {
+            return new HashedNode(NULL_HASH, true, null, null, null, null);
+        }
+        final Hasher hasher = HASH.newHasher();
+        final boolean exact = putContent(hasher, leaf);
+        return new HashedNode(hasher.hash(), exact, leaf, null, null, null);
+    }
+
+    /***
+     * Puts a type tag and the content of a leaf value into the hasher, so that values of different types or contents
+     * never share an encoding, whatever their string representation.
+     *
+     * @return true if equal encodings imply equal values, false for the values hashed from their string representation
+     */
+    private static boolean putContent(Hasher hasher, Object value) {
+        switch (value) {
+            case null -> hasher.putByte((byte) 'N');
+            case String string -> putString(hasher.putByte((byte) 'S'), string);
+            case Integer number -> hasher.putByte((byte) 'I').putInt(number);
+            case Long number -> hasher.putByte((byte) 'J').putLong(number);
+            // Double and Float equality compares the canonical bits, every NaN being equal
+            case Double number -> hasher.putByte((byte) 'D').putLong(Double.doubleToLongBits(number));
+            case Float number -> hasher.putByte((byte) 'F').putInt(Float.floatToIntBits(number));
+            case Short number -> hasher.putByte((byte) 'H').putShort(number);
+            case Byte number -> hasher.putByte((byte) 'B').putByte(number);
+            case BigInteger number -> putBytes(hasher.putByte((byte) 'G'), number.toByteArray());
+            // BigDecimal equality compares the scale as well as the unscaled value
+            case BigDecimal number -> putBytes(hasher.putByte((byte) 'E').putInt(number.scale()), number.unscaledValue().toByteArray());
+            case Boolean bool -> hasher.putByte((byte) 'Z').putBoolean(bool);
+            case Character character -> hasher.putByte((byte) 'C').putChar(character);
+            case Enum<?> constant -> putString(putString(hasher.putByte((byte) 'U'), constant.getDeclaringClass().getName()), constant.name());
+            case List<?> list -> {
+                // List equality ignores the list implementation, so its class is left out
+                hasher.putByte((byte) 'L').putInt(list.size());
+                boolean exact = true;
+                for (final Object element : list) {
+                    exact &= putContent(hasher, element);
+                }
+                return exact;
+            }
+            case Map<?, ?> map -> {
+                final List<HashCode> entryHashes = new ArrayList<>(map.size());
+                boolean exact = true;
+                for (final var entry : map.entrySet()) {
+                    final Hasher entryHasher = HASH.newHasher();
+                    exact &= putContent(entryHasher, entry.getKey());
+                    exact &= putContent(entryHasher, entry.getValue());
+                    entryHashes.add(entryHasher.hash());
+                }
+                hasher.putByte((byte) 'M').putInt(map.size());
+                if (!entryHashes.isEmpty()) {
+                    hasher.putBytes(Hashing.combineUnordered(entryHashes).asBytes());
+                }
+                return exact;
+            }
+            default -> {
+                putString(putString(hasher.putByte((byte) 'O'), value.getClass().getName()), value.toString()).putInt(value.hashCode());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Hasher putString(Hasher hasher, String string) {
+        return hasher.putInt(string.length()).putString(string, StandardCharsets.UTF_8);
+    }
+
+    private static Hasher putBytes(Hasher hasher, byte[] bytes) {
+        return hasher.putInt(bytes.length).putBytes(bytes);
+    }
+
+    private HashedNode hashBranch(Map<String, Object> tree, String path) {
+        final Map<String, HashedNode> children = LinkedHashMap.newLinkedHashMap(tree.size());
+        final List<HashCode> entryHashes = new ArrayList<>(tree.size());
+        boolean exact = true;
+        for (final var entry : tree.entrySet()) {
+            final String key = entry.getKey();
+            // The key paths only select the list strategies, so they are not built when every list is a leaf
+            final HashedNode child = hash(entry.getValue(), listAware ? childKey(path, key) : path);
+            children.put(key, child);
+            exact &= child.exact();
+            entryHashes.add(HASH.newHasher()
+                    .putString(String.valueOf(key), StandardCharsets.UTF_8)
+                    .putBytes(child.hash().asBytes())
+                    .hash());
+        }
+        // The unordered combination makes the hash independent of the iteration order of the maps
+        return new HashedNode(Hashing.combineUnordered(entryHashes), exact, tree, children, null, null);
+    }
+
+    private HashedNode hashList(List<?> list, String path, ListDiffStrategy strategy) {
+        final List<HashedNode> elements = new ArrayList<>(list.size());
+        for (final Object element : list) {
+            elements.add(hash(element, path));
+        }
+        final List<HashCode> elementHashes = elements.stream().map(HashedNode::hash).toList();
+        final boolean exact = elements.stream().allMatch(HashedNode::exact);
+        final HashCode hash;
+        if (elements.isEmpty()) {
+            hash = EMPTY_LIST_HASH;
+        } else if (strategy.getMode() == ListDiffStrategy.Mode.KEYED) {
+            hash = Hashing.combineUnordered(elementHashes);
+        } else {
+            hash = Hashing.combineOrdered(elementHashes);
+        }
+        return new HashedNode(hash, exact, list, null, elements, strategy);
+    }
+
+    /***
+     * Walks the expected tree next to the actual one, skipping the subtrees with equal hashes.
+     *
+     * @return false if the sink stopped the walk
+     */
+    private boolean walk(HashedNode actual, HashedNode expected, String key, BiPredicate<String, ObjectDiffDetails> sink) {
+        if (actual != null && actual.exact() && expected.exact() && actual.hash().equals(expected.hash())) {
+            return true;
+        }
+        if (expected.isList() && actual != null && actual.isList()) {
+            return switch (expected.listStrategy().getMode()) {
+                case KEYED -> walkKeyed(actual, expected, key, sink);
+                case ALIGNED -> walkAligned(actual, expected, key, sink);
+                default -> walkPositional(actual.elements(), 0, actual.elements().size(), expected.elements(), 0, expected.elements().size(), key, sink);
+            };
+        }
+        if (!expected.isBranch()) {
+            // A key holding nested values in the actual tree is missing from the actual flattened map
+            final Object actualValue = actual == null || actual.isBranch() ? null : actual.value();
+            return ObjectHelper.isEqual(actualValue, expected.value()) || sink.test(key, new ObjectDiffDetails(actualValue, expected.value()));
+        }
+        final Map<String, HashedNode> actualChildren = actual != null && actual.isBranch() ? actual.children() : Map.of();
+        for (final var child : expected.children().entrySet()) {
+            if (!walk(actualChildren.get(child.getKey()), child.getValue(), childKey(key, child.getKey()), sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Compares the elements of the same index within the ranges of the two lists, the elements beyond the shortest range
+     * being reported as removed or inserted.
+     */
+    private boolean walkPositional(List<HashedNode> actual, int actualFrom, int actualTo, List<HashedNode> expected, int expectedFrom, int expectedTo,
+                                   String key, BiPredicate<String, ObjectDiffDetails> sink) {
+        final int paired = Math.min(actualTo - actualFrom, expectedTo - expectedFrom);
+        for (int i = 0; i < paired; i++) {
+            if (!walk(actual.get(actualFrom + i), expected.get(expectedFrom + i), elementKey(key, expectedFrom + i), sink)) {
+                return false;
+            }
+        }
+        for (int i = expectedFrom + paired; i < expectedTo; i++) {
+            if (!sink.test(elementKey(key, i), new ObjectDiffDetails(null, expected.get(i).value()))) {
+                return false;
+            }
+        }
+        for (int i = actualFrom + paired; i < actualTo; i++) {
+            if (!sink.test(insertedKey(key, i), new ObjectDiffDetails(actual.get(i).value(), null))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Compares the elements of the same id, whatever their position in the lists.
+     *
+     * @throws IllegalArgumentException if an element of either list has no id or shares its id with another element of its list
+     */
+    private boolean walkKeyed(HashedNode actual, HashedNode expected, String key, BiPredicate<String, ObjectDiffDetails> sink) {
+        final ListDiffStrategy strategy = expected.listStrategy();
+        final Map<Object, Integer> actualIndexes = HashMap.newHashMap(actual.elements().size());
+        for (int i = 0; i < actual.elements().size(); i++) {
+            if (actualIndexes.put(idOf(strategy, actual.elements().get(i), "actual", key), i) != null) {
+                throw new IllegalArgumentException("Duplicate actual list id: " + strategy.idOf(actual.elements().get(i).value()) + " in " + key);
+            }
+        }
+        final Set<Object> expectedIds = HashSet.newHashSet(expected.elements().size());
+        final boolean[] matched = new boolean[actual.elements().size()];
+        for (final HashedNode element : expected.elements()) {
+            final Object id = idOf(strategy, element, "expected", key);
+            if (!expectedIds.add(id)) {
+                throw new IllegalArgumentException("Duplicate expected list id: " + id + " in " + key);
+            }
+            final Integer index = actualIndexes.get(id);
+            final String elementKey = elementKey(key, id);
+            if (index != null) {
+                matched[index] = true;
+            }
+            final boolean proceed = index == null
+                    ? sink.test(elementKey, new ObjectDiffDetails(null, element.value()))
+                    : walk(actual.elements().get(index), element, elementKey, sink);
+            if (!proceed) {
+                return false;
+            }
+        }
+        for (int i = 0; i < matched.length; i++) {
+            final Object value = actual.elements().get(i).value();
+            if (!matched[i] && !sink.test(insertedKey(key, strategy.idOf(value)), new ObjectDiffDetails(value, null))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object idOf(ListDiffStrategy strategy, HashedNode element, String side, String key) {
+        final Object id = strategy.idOf(element.value());
+        if (id == null) {
+            throw new IllegalArgumentException("Missing " + side + " list id in " + key + ": " + element.value());
+        }
+        return id;
+    }
+
+    /***
+     * Aligns the equal elements of two ordered lists along their longest common subsequence, after skipping their common
+     * prefix and suffix, and compares the elements left between two aligned elements by position.
+     */
+    private boolean walkAligned(HashedNode actualList, HashedNode expectedList, String key, BiPredicate<String, ObjectDiffDetails> sink) {
+        final List<HashedNode> actual = actualList.elements();
+        final List<HashedNode> expected = expectedList.elements();
+        int start = 0;
+        while (start < actual.size() && start < expected.size() && sameContent(actual.get(start), expected.get(start))) {
+            start++;
+        }
+        int actualEnd = actual.size();
+        int expectedEnd = expected.size();
+        while (actualEnd > start && expectedEnd > start && sameContent(actual.get(actualEnd - 1), expected.get(expectedEnd - 1))) {
+            actualEnd--;
+            expectedEnd--;
+        }
+        int actualFrom = start;
+        int expectedFrom = start;
+        for (final int[] match : commonSubsequence(actual, start, actualEnd, expected, start, expectedEnd)) {
+            if (!walkPositional(actual, actualFrom, match[0], expected, expectedFrom, match[1], key, sink)) {
+                return false;
+            }
+            actualFrom = match[0] + 1;
+            expectedFrom = match[1] + 1;
+        }
+        return walkPositional(actual, actualFrom, actualEnd, expected, expectedFrom, expectedEnd, key, sink);
+    }
+
+    /***
+     * Finds the longest common subsequence of the ranges with the greedy algorithm of Myers, whose cost grows with the number
+     * of differing elements rather than with the product of the range sizes.
+     *
+     * @return the index pairs of the actual and expected elements of the longest common subsequence of the ranges, in order,
+     * or none when the ranges differ by too many elements to be aligned
+     */
+    private List<int[]> commonSubsequence(List<HashedNode> actual, int actualFrom, int actualTo, List<HashedNode> expected, int expectedFrom, int expectedTo) {
+        final int actualSize = actualTo - actualFrom;
+        final int expectedSize = expectedTo - expectedFrom;
+        if (actualSize == 0 || expectedSize == 0) {
+            return List.of();
+        }
+        // frontier[offset + k] holds the furthest actual index reached on the diagonal k = actual index - expected index
+        final int offset = actualSize + expectedSize;
+        final int[] frontier = new int[2 * offset + 2];
+        final List<int[]> frontiers = new ArrayList<>();
+        for (int edits = 0; edits <= offset; edits++) {
+            if ((long) (edits + 1) * frontier.length > MAX_ALIGNED_CELLS) {
+                return List.of();
+            }
+            frontiers.add(frontier.clone());
+            for (int k = -edits; k <= edits; k += 2) {
+                int x = k == -edits || (k != edits && frontier[offset + k - 1] < frontier[offset + k + 1])
+                        ? frontier[offset + k + 1]
+                        : frontier[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < actualSize && y < expectedSize && sameContent(actual.get(actualFrom + x), expected.get(expectedFrom + y))) {
+                    x++;
+                    y++;
+                }
+                frontier[offset + k] = x;
+                if (x >= actualSize && y >= expectedSize) {
+                    return backtrack(frontiers, offset, actualSize, expectedSize, actualFrom, expectedFrom);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    /***
+     * Walks the frontiers of the Myers algorithm back from the end of the ranges, collecting the diagonal moves as matches.
+     */
+    private List<int[]> backtrack(List<int[]> frontiers, int offset, int actualSize, int expectedSize, int actualFrom, int expectedFrom) {
+        final List<int[]> matches = new ArrayList<>();
+        int x = actualSize;
+        int y = expectedSize;
+        for (int edits = frontiers.size() - 1; edits > 0; edits--) {
+            final int[] frontier = frontiers.get(edits);
+            final int k = x - y;
+            final int previousK = k == -edits || (k != edits && frontier[offset + k - 1] < frontier[offset + k + 1]) ? k + 1 : k - 1;
+            final int previousX = frontier[offset + previousK];
+            final int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                matches.add(new int[]{actualFrom + --x, expectedFrom + --y});
+            }
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0 && y > 0) {
+            matches.add(new int[]{actualFrom + --x, expectedFrom + --y});
+        }
+        return matches.reversed();
+    }
+
+    /***
+     * Checks whether two elements hold the same values, from their hashes when they prove it and from their values otherwise.
+     */
+    private static boolean sameContent(HashedNode actual, HashedNode expected) {
+        if (!actual.hash().equals(expected.hash())) {
+            return false;
+        }
+        if (actual.exact() && expected.exact()) {
+            return true;
+        }
+        // The subtrees of the inexact branches and lists are left to the walk
+        return !actual.isBranch() && !actual.isList() && !expected.isBranch() && !expected.isList()
+                && ObjectHelper.isEqual(actual.value(), expected.value());
+    }
+
+    private static String childKey(String key, String child) {
+        return key.isEmpty() ? child : key + KEY_SEPARATOR + child;
+    }
+
+    private static String elementKey(String key, Object index) {
+        return key + "[" + index + "]";
+    }
+
+    private static String insertedKey(String key, Object index) {
+        return key + "[+" + index + "]";
+    }
+
+    /***
+     * A node of a hashed tree: a leaf holding a value, a branch holding its children, or a list compared element by element.
+     *
+     * @param hash         the hash of the subtree
+     * @param exact        whether an equal hash proves an equal subtree, false when it holds values hashed from their string representation
+     * @param value        the value of the subtree in the tree of the object
+     * @param children     the children of a branch by key, null otherwise
+     * @param elements     the elements of a list compared element by element, null otherwise
+     * @param listStrategy the strategy comparing a list, null otherwise
+     */
+    private record HashedNode(HashCode hash, boolean exact, Object value, Map<String, HashedNode> children, List<HashedNode> elements,
+                              ListDiffStrategy listStrategy) {
+
+        private boolean isBranch() {
+            return children != null;
+        }
+
+        private boolean isList() {
+            return elements != null;
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.ia.common.utilities.helpher;
 import com.ia.common.utilities.helper.MapBuilder;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 class MapBuilderTest {
 
@@ -46,4 +50,24 @@ class MapBuilderTest {
         assertThat(map.values().stream().filter(v -> v.toString().contains("TPW-6666")).findFirst()).isPresent();
         assertThat(map).doesNotContainKey("contractNumber");
     }
+
+    @Test
+    void testBuildImmutable() {
+        final Map<String, Object> map = MapBuilder.<String, Object>builder(3)
+                .add("replyCode", "A")
+                .add("tradeReference", "TPW-6666")
+                .add("contractNumber", null)
+                .add("replyCode", "R")
+                .buildImmutable();
+        assertThat(map).containsExactly(entry("replyCode", "R"), entry("tradeReference", "TPW-6666"));
+        assertThatThrownBy(() -> map.put("contractNumber", "356710")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testParallelToMap() {
+        final List<Integer> data = IntStream.range(0, 100_000).boxed().toList();
+        final Map<Integer, Integer> expected = MapBuilder.toMap(data, value -> value % 1_000);
+        assertThat(MapBuilder.parallelToMap(data, value -> value % 1_000)).isEqualTo(expected).containsEntry(7, 99_007);
+        assertThat(MapBuilder.parallelToMap(data, value -> value % 1_000, (first, second) -> first)).containsEntry(7, 7);
+    }
 }
@@ -0,0 +1,63 @@
+package com.ia.common.utilities.helpher.collection;
+
+import com.ia.common.utilities.helper.collection.CompositeGroupingList;
+import com.ia.common.utilities.helper.collection.CompositeGroupingList.KeyField;
+import com.ia.common.utilities.helper.collection.GroupingArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompositeGroupingListTest {
+
+    @Test
+    void compositeGroupingTest() {
+        final var trades = IntStream.range(0, 5_000)
+                .mapToObj(i -> new Trade(i, "BOOK-" + i % 3, i % 50 == 0 ? null : (long) (i % 400), LocalDate.of(2024, 1, 1 + i % 2)))
+                .toList();
+        final var composite = CompositeGroupingList.create(trades, Trade::book, Trade::securityId, Trade::tradeDate);
+        final var boxed = GroupingArrayList.create(trades, trade -> Arrays.asList(trade.book(), trade.securityId(), trade.tradeDate()));
+        assertThat(composite.itemByKey()).isEqualTo(boxed.itemByKey());
+        assertThat(composite.duplicateToMap()).isEqualTo(boxed.duplicateToMap());
+        assertThat(composite.uniquesToList()).containsExactlyInAnyOrderElementsOf(boxed.uniquesToList());
+        assertThat(composite.itemsOf("BOOK-1", 1L, LocalDate.of(2024, 1, 2))).extracting(Trade::tradeId).containsExactly(1, 1201, 2401, 3601, 4801);
+        assertThat(composite.itemsOf("BOOK-0", null, LocalDate.of(2024, 1, 1))).isNotEmpty().allMatch(trade -> trade.securityId() == null);
+        assertThat(composite.itemsOf("BOOK-9", 1L, LocalDate.of(2024, 1, 2))).isEmpty();
+    }
+
+    @Test
+    void compositeGroupingAfterModificationTest() {
+        final var trades = CompositeGroupingList.create(Trade::book, Trade::securityId);
+        trades.add(new Trade(1, "BOOK-1", 1L, LocalDate.of(2024, 1, 1)));
+        assertThat(trades.hasDuplicates()).isFalse();
+        trades.add(new Trade(2, "BOOK-1", 1L, LocalDate.of(2024, 1, 2)));
+        assertThat(trades.duplicateToMap()).containsOnlyKeys(List.of(List.of("BOOK-1", 1L)));
+    }
+
+    @Test
+    void compositeGroupingWithPrimitiveFieldsTest() {
+        final var positions = IntStream.range(0, 5_000)
+                .mapToObj(i -> new Position("BOOK-" + i % 3, i % 400, i % 7, i % 2 == 0 ? 0.5 : -0.0))
+                .toList();
+        final var composite = CompositeGroupingList.create(positions, KeyField.of(Position::book), KeyField.ofLong(Position::accountId),
+                KeyField.ofInt(Position::desk), KeyField.ofDouble(Position::weight));
+        final var boxed = GroupingArrayList.create(positions, position -> Arrays.<Object>asList(position.book(), position.accountId(),
+                position.desk(), position.weight()));
+        assertThat(composite.itemByKey()).isEqualTo(boxed.itemByKey());
+        assertThat(composite.duplicateToMap()).isEqualTo(boxed.duplicateToMap());
+        assertThat(composite.uniquesToList()).containsExactlyInAnyOrderElementsOf(boxed.uniquesToList());
+        assertThat(composite.itemsOf("BOOK-1", 1L, 1, -0.0)).containsExactlyElementsOf(boxed.itemByKey().get(Arrays.asList("BOOK-1", 1L, 1, -0.0)));
+        assertThat(composite.itemsOf("BOOK-1", 1L, 1, 0.0)).isEmpty();
+        assertThat(composite.itemsOf("BOOK-1", 1, 1, -0.0)).isEmpty();
+    }
+
+    record Trade(int tradeId, String book, Long securityId, LocalDate tradeDate) {
+    }
+
+    record Position(String book, long accountId, int desk, double weight) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.ia.common.utilities.helpher.collection;
+
+import com.ia.common.utilities.helper.collection.ConcurrentGroupingCollection;
+import com.ia.common.utilities.helper.collection.GroupingArrayList;
+import com.ia.common.utilities.helper.data.DefaultSliceDataFetcher;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPage;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentGroupingCollectionTest {
+
+    @Test
+    void groupWhileFetchingInParallelTest() {
+        final Function<Long, Long> keyProvider = item -> item % 3 == 0 ? item % 1_000 : item;
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 30_000)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 30_000);
+        };
+        final var options = SliceFetchOptions.builder().sliceSize(100).maxParallelism(8).build();
+        final var grouped = ConcurrentGroupingCollection.create(keyProvider);
+        new DefaultSliceDataFetcher().fetch(options, pageFetcher, page -> grouped.addAll(page.getItems()));
+
+        final var expected = GroupingArrayList.create(LongStream.range(0, 30_000).boxed().toList(), keyProvider);
+        assertThat(grouped).hasSize(30_000);
+        assertThat(grouped.hasDuplicates()).isTrue();
+        assertThat(grouped.hasUniques()).isTrue();
+        assertThat(grouped.duplicateToMap()).hasSameSizeAs(expected.duplicateToMap());
+        assertThat(grouped.duplicatesToList()).containsExactlyInAnyOrderElementsOf(expected.duplicatesToList());
+        assertThat(grouped.uniquesToList()).containsExactlyInAnyOrderElementsOf(expected.uniquesToList());
+        assertThat(grouped.singleItemByKey(Math::min)).isEqualTo(expected.singleItemByKey(Math::min));
+    }
+
+    @Test
+    void groupNullItemsTest() {
+        final var grouped = ConcurrentGroupingCollection.<String, String>create(item -> item == null ? "" : item);
+        grouped.addAll(Arrays.asList("A", null, "B", null));
+
+        assertThat(grouped.duplicatesToList()).containsExactly(null, null);
+        assertThat(grouped.uniquesToList()).containsExactlyInAnyOrder("A", "B");
+        assertThat(grouped).hasSize(4);
+        assertThat(grouped.hasDuplicates()).isTrue();
+        assertThat(grouped.hasUniques()).isTrue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.ia.common.utilities.helpher.collection;
+
+import com.ia.common.utilities.helper.collection.GroupingArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+/***
+ * Measures the regrouping of a large GroupingArrayList on an increasing number of cores.
+ * The parallel stream runs on the fork join pool executing the grouping, so the pool size bounds the cores in use,
+ * and a parallelism of zero groups the list sequentially.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ia.common.utilities.helpher.collection.GroupingArrayListBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupingArrayListBenchmark {
+
+    @Param({"5000000"})
+    private int size;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int parallelism;
+
+    private GroupingArrayList<Long, Long> items;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Function<Long, Long> keyProvider = item -> item % (size / 3);
+        final var data = LongStream.range(0, size).boxed().toList();
+        items = GroupingArrayList.create(data, keyProvider, parallelism == 0 ? Integer.MAX_VALUE : 1);
+        pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int itemByKey() {
+        // A new key provider marks the index as stale, so every invocation regroups the whole list
+        return pool.submit(() -> {
+            items.setKeyProvider(items.getKeyProvider());
+            return items.itemByKey().size();
+        }).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GroupingArrayListBenchmark.class.getSimpleName()).build()).run();
+    }
+}
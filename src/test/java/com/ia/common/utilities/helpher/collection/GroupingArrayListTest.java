@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -28,6 +29,51 @@ public class GroupingArrayListTest {
     }
 
 
+    @Test
+    void groupIndexFollowsModificationsTest() {
+        final var data = GroupingArrayList.create(sampleData(), Security::country);
+        assertThat(data.duplicateToMap()).containsOnlyKeys("USA");
+        data.remove(new Security(3L, "USA"));
+        assertThat(data.hasDuplicates()).isFalse();
+        assertThat(data.uniquesToList()).hasSize(7);
+        data.addAll(List.of(new Security(9L, "JPN"), new Security(10L, "JPN")));
+        assertThat(data.itemByKey().get("JPN")).extracting(Security::securityId).containsExactly(2L, 9L, 10L);
+        data.removeIf(security -> security.securityId() > 8);
+        data.add(0, new Security(11L, "ITA"));
+        assertThat(data.duplicateToMap().get("ITA")).extracting(Security::securityId).containsExactly(11L, 4L);
+        data.set(0, new Security(12L, "FRA"));
+        assertThat(data.duplicateToMap()).containsOnlyKeys("FRA");
+        data.setKeyProvider(security -> "ALL");
+        assertThat(data.duplicatesToList()).hasSize(data.size());
+        data.clear();
+        assertThat(data.hasUniques()).isFalse();
+    }
+
+    @Test
+    void parallelGroupingTest() {
+        final var items = IntStream.range(0, 10_000).mapToObj(i -> new Security((long) i, "C" + i % 1_000)).toList();
+        final var parallel = GroupingArrayList.create(items, Security::country, 1);
+        final var sequential = GroupingArrayList.create(items, Security::country, Integer.MAX_VALUE);
+        assertThat(parallel.itemByKey()).isEqualTo(sequential.itemByKey()).hasSize(1_000);
+        assertThat(parallel.itemByKey().get("C7")).extracting(Security::securityId).isSorted();
+        assertThat(parallel.singleItemByKey((first, second) -> second)).isEqualTo(sequential.singleItemByKey((first, second) -> second));
+        assertThat(parallel.hasUniques()).isFalse();
+    }
+
+    @Test
+    void groupMapsAreSnapshotsTest() {
+        final var data = GroupingArrayList.create(sampleData(), Security::country);
+        final var duplicates = data.duplicateToMap();
+        final var itemByKey = data.itemByKey();
+        final var usa = List.copyOf(itemByKey.get("USA"));
+        data.add(new Security(9L, "USA"));
+        data.add(new Security(10L, "JPN"));
+        assertThat(duplicates).containsOnlyKeys("USA");
+        assertThat(duplicates.get("USA")).isEqualTo(usa);
+        assertThat(itemByKey.get("USA")).isEqualTo(usa);
+        assertThat(itemByKey.get("JPN")).hasSize(1);
+    }
+
     private List<Security> sampleData() {
         return List.of(
                 new Security(1L, "USA"),
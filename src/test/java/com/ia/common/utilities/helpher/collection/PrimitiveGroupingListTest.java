@@ -0,0 +1,53 @@
+package com.ia.common.utilities.helpher.collection;
+
+import com.ia.common.utilities.helper.collection.GroupingArrayList;
+import com.ia.common.utilities.helper.collection.IntGroupingList;
+import com.ia.common.utilities.helper.collection.LongGroupingList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrimitiveGroupingListTest {
+
+    @Test
+    void longGroupingTest() {
+        final var data = LongGroupingList.create(sampleData(), Trade::securityId);
+        assertThat(data.hasDuplicates()).isTrue();
+        assertThat(data.hasUniques()).isTrue();
+        assertThat(data.uniquesToList()).extracting(Trade::tradeId).containsExactlyInAnyOrder(2, 4);
+        assertThat(data.duplicateToMap()).containsOnlyKeys(10_000_000_000L);
+        assertThat(data.itemsOf(10_000_000_000L)).extracting(Trade::tradeId).containsExactly(1, 3, 5);
+        assertThat(data.itemsOf(42L)).isEmpty();
+        data.add(new Trade(6, 7L, 1));
+        assertThat(data.duplicateToMap()).containsOnlyKeys(10_000_000_000L, 7L);
+        data.set(0, new Trade(7, 8L, 1));
+        assertThat(data.itemsOf(10_000_000_000L)).extracting(Trade::tradeId).containsExactly(3, 5);
+        assertThat(data.singleItemByKey((first, second) -> second).get(10_000_000_000L).tradeId()).isEqualTo(5);
+    }
+
+    @Test
+    void intGroupingMatchesGroupingArrayListTest() {
+        final var trades = IntStream.range(0, 50_000).mapToObj(i -> new Trade(i, i, i % 7_919 * 31)).toList();
+        final var primitive = IntGroupingList.create(trades, Trade::bookId);
+        final var boxed = GroupingArrayList.create(trades, Trade::bookId);
+        assertThat(primitive.groupCount()).isEqualTo(7_919);
+        assertThat(primitive.itemByKey()).isEqualTo(boxed.itemByKey());
+        assertThat(primitive.duplicatesToList()).hasSameSizeAs(boxed.duplicatesToList());
+        assertThat(primitive.itemsOf(31)).extracting(Trade::tradeId).isSorted().hasSize(7);
+    }
+
+    private List<Trade> sampleData() {
+        return List.of(
+                new Trade(1, 10_000_000_000L, 1),
+                new Trade(2, 20L, 2),
+                new Trade(3, 10_000_000_000L, 1),
+                new Trade(4, 7L, 3),
+                new Trade(5, 10_000_000_000L, 2));
+    }
+
+    record Trade(int tradeId, long securityId, int bookId) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.ia.common.utilities.helpher.collection;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.ia.common.utilities.helper.collection.GroupingArrayList;
+import com.ia.common.utilities.helper.collection.SpillingDuplicateDetector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpillingDuplicateDetectorTest {
+
+    private final List<Trade> trades = IntStream.range(0, 20_000)
+            .mapToObj(i -> new Trade(i, "REF-" + (i % 3 == 0 ? i / 3 % 500 : i)))
+            .toList();
+
+    @Test
+    void detectWithBloomFilterTest(@TempDir Path tempDirectory) throws IOException {
+        final var detector = SpillingDuplicateDetector.<String, Trade>builder()
+                .keyProvider(Trade::reference)
+                .type(new TypeReference<>() {})
+                .partitions(8)
+                .tempDirectory(tempDirectory)
+                .expectedKeys(20_000)
+                .build();
+        final var expected = GroupingArrayList.create(trades, Trade::reference);
+        try (final var groups = detector.detect(trades::stream)) {
+            assertThat(groups.duplicates().toList()).containsExactlyInAnyOrderElementsOf(expected.duplicatesToList());
+            assertThat(groups.uniques().toList()).containsExactlyInAnyOrderElementsOf(expected.uniquesToList());
+            assertThat(groups.duplicateGroups()).allMatch(group -> group.size() > 1);
+            // Records known to be unique are never spilled
+            try (final var files = Files.walk(tempDirectory)) {
+                final long spilledLines = files.filter(Files::isRegularFile).mapToLong(this::lineCount).sum();
+                assertThat(spilledLines).isLessThan(trades.size() / 2);
+            }
+        }
+        try (final var files = Files.list(tempDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void detectWithoutBloomFilterTest(@TempDir Path tempDirectory) {
+        final var detector = SpillingDuplicateDetector.<String, Trade>builder()
+                .keyProvider(Trade::reference)
+                .type(new TypeReference<>() {})
+                .tempDirectory(tempDirectory)
+                .build();
+        final var expected = GroupingArrayList.create(trades, Trade::reference);
+        try (final var groups = detector.detect(trades::stream)) {
+            assertThat(groups.duplicates().count()).isEqualTo(expected.duplicatesToList().size());
+            assertThat(groups.uniques().count()).isEqualTo(expected.uniquesToList().size());
+        }
+    }
+
+    @Test
+    void detectKeysWhoseStringsDifferTest(@TempDir Path tempDirectory) {
+        final var detector = SpillingDuplicateDetector.<CaseInsensitiveKey, Trade>builder()
+                .keyProvider(trade -> new CaseInsensitiveKey(trade.reference()))
+                .type(new TypeReference<>() {})
+                .partitions(4)
+                .tempDirectory(tempDirectory)
+                .expectedKeys(100)
+                .build();
+        final List<Trade> mixedCaseTrades = List.of(new Trade(1, "REF-1"), new Trade(2, "ref-1"), new Trade(3, "REF-3"));
+        final AtomicBoolean sourceClosed = new AtomicBoolean();
+        try (final var groups = detector.detect(() -> mixedCaseTrades.stream().onClose(() -> sourceClosed.set(true)))) {
+            assertThat(groups.duplicates().map(Trade::tradeId).toList()).containsExactly(1, 2);
+            sourceClosed.set(false);
+            try (final var uniques = groups.uniques()) {
+                assertThat(uniques.map(Trade::tradeId).toList()).containsExactly(3);
+            }
+            assertThat(sourceClosed).isTrue();
+        }
+    }
+
+    private long lineCount(Path file) {
+        try (final var lines = Files.lines(file)) {
+            return lines.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Trade(int tradeId, String reference) {
+    }
+
+    record CaseInsensitiveKey(String value) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CaseInsensitiveKey key && value.equalsIgnoreCase(key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.toLowerCase(Locale.ROOT).hashCode();
+        }
+    }
+}
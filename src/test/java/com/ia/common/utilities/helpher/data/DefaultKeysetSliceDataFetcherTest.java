@@ -0,0 +1,118 @@
+package com.ia.common.utilities.helpher.data;
+
+import com.ia.common.utilities.helper.data.DefaultKeysetSliceDataFetcher;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.KeysetPageRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DefaultKeysetSliceDataFetcherTest {
+
+    private final DefaultKeysetSliceDataFetcher fetcher = new DefaultKeysetSliceDataFetcher();
+
+    private final List<Long> table = LongStream.rangeClosed(1, 1000).boxed().toList();
+
+    private final Function<KeysetPageRequest<Long>, List<Long>> pageFetcher = request -> table.stream()
+            .filter(key -> request.lowerKey() == null || key > request.lowerKey())
+            .filter(key -> request.upperKey() == null || key <= request.upperKey())
+            .limit(request.limit())
+            .toList();
+
+    @Test
+    void testFetchSequentially() {
+        final var result = fetcher.fetch(100, Function.identity(), pageFetcher);
+        assertThat(result.fetchedData()).containsExactlyElementsOf(table);
+    }
+
+    @Test
+    void testFetchRangesInParallel() {
+        final var options = SliceFetchOptions.builder().sliceSize(30).maxParallelism(3).build();
+        final var result = fetcher.fetch(options, KeyRange.split(1, 1000, 7), Function.identity(), pageFetcher);
+        assertThat(result.fetchedData()).containsExactlyElementsOf(table);
+    }
+
+    @Test
+    void testRejectDeadline() {
+        final var options = SliceFetchOptions.builder().sliceSize(30).deadline(Instant.now().plusSeconds(60)).build();
+        assertThatThrownBy(() -> fetcher.fetch(options, KeyRange.split(1, 1000, 7), Function.identity(), pageFetcher))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testResumeRangesFromLastConsumedKey(@TempDir Path checkpointDirectory) {
+        final AtomicLong failingLowerKey = new AtomicLong(560);
+        final var requestedKeys = new ConcurrentLinkedQueue<Long>();
+        final Function<KeysetPageRequest<Long>, List<Long>> failingPageFetcher = request -> {
+            if (request.lowerKey() != null && request.lowerKey() == failingLowerKey.get()) {
+                throw new IllegalStateException("Connection lost");
+            }
+            requestedKeys.add(request.lowerKey() == null ? 0L : request.lowerKey());
+            return pageFetcher.apply(request);
+        };
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(20)
+                .maxParallelism(1)
+                .checkpointDirectory(checkpointDirectory)
+                .runId("keyset-sync")
+                .build();
+        final var ranges = KeyRange.split(1, 1000, 2);
+
+        final var consumed = new ConcurrentLinkedQueue<Long>();
+        assertThatThrownBy(() -> fetcher.fetch(options, ranges, Function.identity(), failingPageFetcher, consumed::addAll))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(consumed).hasSize(560);
+
+        requestedKeys.clear();
+        failingLowerKey.set(-1);
+        final var result = fetcher.fetch(options, ranges, Function.identity(), failingPageFetcher, consumed::addAll);
+        // The first range is skipped and the second one is walked from its last consumed key
+        assertThat(requestedKeys).first().isEqualTo(560L);
+        assertThat(result.fetchedItems()).isEqualTo(440);
+        assertThat(consumed).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(Files.exists(checkpointDirectory.resolve("keyset-sync.checkpoint"))).isFalse();
+    }
+
+    @Test
+    void testSplitKeySpace() {
+        final var ranges = KeyRange.split(0, 100, 4);
+        assertThat(ranges).containsExactly(
+                new KeyRange<>(null, 25L),
+                new KeyRange<>(25L, 50L),
+                new KeyRange<>(50L, 75L),
+                new KeyRange<>(75L, null));
+        assertThat(KeyRange.split(5, 6, 4)).hasSize(2);
+    }
+
+    @Test
+    void testSplitWholeLongKeySpace() {
+        final var ranges = KeyRange.split(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+        assertThat(ranges).containsExactly(
+                new KeyRange<>(null, -(1L << 62) - 1),
+                new KeyRange<>(-(1L << 62) - 1, -1L),
+                new KeyRange<>(-1L, (1L << 62) - 1),
+                new KeyRange<>((1L << 62) - 1, null));
+    }
+
+    @Test
+    void testSplitKeysNearMaxValue() {
+        final var ranges = KeyRange.split(Long.MAX_VALUE - 8, Long.MAX_VALUE, 4);
+        assertThat(ranges).containsExactly(
+                new KeyRange<>(null, Long.MAX_VALUE - 6),
+                new KeyRange<>(Long.MAX_VALUE - 6, Long.MAX_VALUE - 4),
+                new KeyRange<>(Long.MAX_VALUE - 4, Long.MAX_VALUE - 2),
+                new KeyRange<>(Long.MAX_VALUE - 2, null));
+    }
+}
@@ -1,15 +1,38 @@
 package com.ia.common.utilities.helpher.data;
 
 import com.ia.common.utilities.helper.data.DefaultSliceDataFetcher;
+import com.ia.common.utilities.helper.data.model.AdaptiveSliceSizing;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.SliceHedging;
+import com.ia.common.utilities.helper.data.model.SliceRetryPolicy;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPage;
 import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class DefaultSliceDataFetcherTest {
 
@@ -23,4 +46,324 @@ public class DefaultSliceDataFetcherTest {
         assertThat(result.fetchedData()).hasSize(12);
         assertThat(result.fetchedData()).contains(1L,2L,3L);
     }
+
+    @Test
+    void testStreamData() {
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = request -> OffsetPage.of(List.of(1L, 2L, 3L), 1, 1, 3);
+        final AtomicLong consumed = new AtomicLong();
+        final var result = fetcher.fetch(1, pageFetcher, page -> consumed.addAndGet(page.getItems().size()));
+        assertThat(result.totalSize()).isEqualTo(3);
+        assertThat(result.fetchedSlices()).isEqualTo(4);
+        assertThat(result.fetchedItems()).isEqualTo(12).isEqualTo(consumed.get());
+    }
+
+    @Test
+    void testFetchDataWithBoundedParallelism() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 100)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 100);
+        };
+        try (final var executor = Executors.newFixedThreadPool(8)) {
+            final var result = fetcher.fetch(10, 2, executor, pageFetcher);
+            assertThat(result.fetchedData()).hasSize(100).isSorted();
+        }
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testStreamDataOnVirtualThreads() {
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = request -> OffsetPage.of(List.of(1L, 2L, 3L), request.get().offset(), 1, 3);
+        final AtomicLong consumed = new AtomicLong();
+        final var options = SliceFetchOptions.builder().sliceSize(1).maxParallelism(4).build();
+        final var result = fetcher.fetch(options, pageFetcher, page -> consumed.addAndGet(page.getItems().size()));
+        assertThat(result.fetchedSlices()).isEqualTo(4);
+        assertThat(result.fetchedItems()).isEqualTo(12).isEqualTo(consumed.get());
+    }
+
+    @Test
+    void testFetchDataWithAdaptiveSliceSize() {
+        final AtomicInteger maxLimit = new AtomicInteger();
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            maxLimit.accumulateAndGet(request.limit(), Math::max);
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 3000)).boxed().toList();
+            try {
+                // About 50 microseconds per item
+                Thread.sleep(Duration.ofNanos(items.size() * 50_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return OffsetPage.of(items, request.offset(), request.limit(), 3000);
+        };
+        final var sizing = AdaptiveSliceSizing.builder().targetLatency(Duration.ofMillis(20)).maxSliceSize(1000).build();
+        final var options = SliceFetchOptions.builder().sliceSize(10).maxParallelism(2).adaptiveSizing(sizing).build();
+        final var result = fetcher.fetch(options, pageFetcher);
+        assertThat(result.fetchedData()).hasSize(3000).isSorted().doesNotHaveDuplicates();
+        assertThat(maxLimit.get()).isGreaterThan(10).isLessThanOrEqualTo(1000);
+    }
+
+    @Test
+    void testResumeFetchFromCheckpoint(@TempDir Path checkpointDirectory) {
+        final var fetchedOffsets = new ConcurrentLinkedQueue<Long>();
+        final AtomicInteger failingOffset = new AtomicInteger(50);
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            if (request.offset() == failingOffset.get()) {
+                throw new IllegalStateException("Connection lost");
+            }
+            fetchedOffsets.add(request.offset());
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 100)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 100);
+        };
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(1)
+                .checkpointDirectory(checkpointDirectory)
+                .runId("nightly-sync")
+                .build();
+
+        final var consumed = new ConcurrentLinkedQueue<Long>();
+        assertThatThrownBy(() -> fetcher.fetch(options, pageFetcher, page -> consumed.addAll(page.getItems()))).isInstanceOf(IllegalStateException.class);
+        assertThat(fetchedOffsets).containsExactly(0L, 10L, 20L, 30L, 40L);
+
+        fetchedOffsets.clear();
+        failingOffset.set(-1);
+        final var result = fetcher.fetch(options, pageFetcher, page -> consumed.addAll(page.getItems()));
+        assertThat(fetchedOffsets).containsExactly(50L, 60L, 70L, 80L, 90L, 100L);
+        assertThat(result.fetchedItems()).isEqualTo(50);
+        assertThat(consumed).hasSize(100).doesNotHaveDuplicates();
+        assertThat(Files.exists(checkpointDirectory.resolve("nightly-sync.checkpoint"))).isFalse();
+    }
+
+    @Test
+    void testRejectResumableMergedFetchAndUnsafeRunId(@TempDir Path checkpointDirectory) {
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> OffsetPage.of(List.of(1L), 0, 1, 1);
+        final var options = SliceFetchOptions.builder().sliceSize(10).checkpointDirectory(checkpointDirectory).runId("nightly-sync").build();
+        assertThatThrownBy(() -> fetcher.fetch(options, pageFetcher)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> options.toBuilder().runId("../nightly-sync").build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> options.toBuilder().runId("/tmp/nightly-sync").build()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRetryFailingSlice() {
+        final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(4)
+                .retryPolicy(SliceRetryPolicy.builder().maxAttempts(3).initialBackoff(Duration.ofMillis(1)).build())
+                .build();
+        final var result = fetcher.fetch(options, failingPageFetcher(attempts, 2));
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.fetchedData()).hasSize(100).isSorted();
+        assertThat(attempts.get(30L)).hasValue(3);
+    }
+
+    @Test
+    void testReportFailedSlicesInPartialResult() {
+        final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(4)
+                .retryPolicy(SliceRetryPolicy.builder().maxAttempts(2).initialBackoff(Duration.ofMillis(1)).build())
+                .partialResults(true)
+                .build();
+        final var result = fetcher.fetch(options, failingPageFetcher(attempts, Integer.MAX_VALUE));
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.failedRanges()).containsExactly(new OffsetRange(30, 40));
+        assertThat(result.fetchedData()).hasSize(90).doesNotContain(30L, 39L);
+        assertThat(attempts.get(30L)).hasValue(2);
+    }
+
+    @Test
+    void testHedgeSlowSlice() {
+        final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final CountDownLatch hedgeStarted = new CountDownLatch(1);
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            final int attempt = attempts.computeIfAbsent(request.offset(), o -> new AtomicInteger()).incrementAndGet();
+            try {
+                if (request.offset() == 990 && attempt == 1) {
+                    // The first attempt of the last slice is stuck until its hedge is running
+                    hedgeStarted.await(10, TimeUnit.SECONDS);
+                } else {
+                    if (request.offset() == 990) {
+                        hedgeStarted.countDown();
+                    }
+                    Thread.sleep(2);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 1000)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 1000);
+        };
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(2)
+                .hedging(SliceHedging.builder().percentile(0.9).minSamples(10).build())
+                .build();
+        final var result = fetcher.fetch(options, pageFetcher);
+        assertThat(result.fetchedData()).hasSize(1000).isSorted();
+        assertThat(attempts.get(990L)).hasValue(2);
+        assertThat(hedgeStarted.getCount()).isZero();
+    }
+
+    @Test
+    void testHedgeWinsWhenPrimaryFailsAndStaysWithinParallelism() {
+        final Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final CountDownLatch hedgeStarted = new CountDownLatch(1);
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            final int attempt = attempts.computeIfAbsent(request.offset(), o -> new AtomicInteger()).incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (request.offset() == 900 && attempt == 1) {
+                    // The first attempt of a late slice fails once its hedge is running
+                    hedgeStarted.await(10, TimeUnit.SECONDS);
+                    throw new IllegalStateException("Connection lost");
+                }
+                if (request.offset() == 900) {
+                    hedgeStarted.countDown();
+                }
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 1000)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 1000);
+        };
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(3)
+                .hedging(SliceHedging.builder().percentile(0.5).minSamples(10).build())
+                .build();
+        final var result = fetcher.fetch(options, pageFetcher);
+        assertThat(result.fetchedData()).hasSize(1000).isSorted();
+        assertThat(attempts.get(900L)).hasValue(2);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void testReturnPartialResultAtDeadline() {
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            try {
+                // Slices after the first ones are stuck until the deadline cancels them
+                if (request.offset() >= 40) {
+                    new CountDownLatch(1).await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Slice cancelled", e);
+            }
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 100)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 100);
+        };
+        final var options = SliceFetchOptions.builder()
+                .sliceSize(10)
+                .maxParallelism(2)
+                .partialResults(true)
+                .build();
+        final var result = fetcher.fetch(options, Instant.now().plusMillis(300), pageFetcher);
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.deadlineReached()).isTrue();
+        assertThat(result.failedRanges()).isEmpty();
+        assertThat(result.fetchedData()).isEqualTo(LongStream.range(0, 40).boxed().toList());
+        assertThat(result.missingRanges()).contains(new OffsetRange(40, 50), new OffsetRange(50, 60))
+                .extracting(OffsetRange::length).containsOnly(10L, 40L);
+        assertThat(result.missingRanges().stream().mapToLong(OffsetRange::length).sum()).isEqualTo(60);
+    }
+
+    @Test
+    void testReportUnknownTotalWhenDeadlineReachedBeforeFirstSlice() {
+        final Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> pageFetcher = supplier -> {
+            final var request = supplier.get();
+            try {
+                // Every slice is stuck until the deadline cancels it
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Slice cancelled", e);
+            }
+            return OffsetPage.of(List.of(), request.offset(), request.limit(), 100);
+        };
+        final var options = SliceFetchOptions.builder().sliceSize(10).maxParallelism(2).deadline(Instant.now().plusMillis(200)).build();
+        final var summary = fetcher.fetch(options, pageFetcher, page -> {});
+        assertThat(summary.deadlineReached()).isTrue();
+        assertThat(summary.isTotalSizeKnown()).isFalse();
+        assertThat(summary.isComplete()).isFalse();
+        assertThat(summary.missingRanges()).isEmpty();
+        assertThat(summary.fetchedItems()).isZero();
+    }
+
+    @Test
+    void testRejectDeadlineWithoutCount() {
+        final var options = SliceFetchOptions.builder().sliceSize(10).deadline(Instant.now().plusSeconds(60)).build();
+        assertThatThrownBy(() -> fetcher.fetchWithoutCount(options, pageable -> new SliceImpl<>(List.<Long>of())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFetchDataWithoutCount() {
+        final AtomicInteger requests = new AtomicInteger();
+        final Function<Pageable, Slice<Long>> sliceFetcher = pageable -> {
+            requests.incrementAndGet();
+            final var items = LongStream.range(pageable.getOffset(), Math.min(pageable.getOffset() + pageable.getPageSize(), 95)).boxed().toList();
+            return new SliceImpl<>(items, pageable, pageable.getOffset() + pageable.getPageSize() < 95);
+        };
+        final var options = SliceFetchOptions.builder().sliceSize(10).maxParallelism(4).lookahead(2).build();
+        final var result = fetcher.fetchWithoutCount(options, sliceFetcher);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.fetchedData()).hasSize(95).isSorted().doesNotHaveDuplicates();
+        // Ten pages hold the data, at most the lookahead window is requested beyond them
+        assertThat(requests.get()).isBetween(10, 12);
+
+        requests.set(0);
+        final var estimatedOptions = options.toBuilder().estimatedTotal(60L).build();
+        final AtomicLong consumed = new AtomicLong();
+        final var summary = fetcher.fetchWithoutCount(estimatedOptions, sliceFetcher, items -> consumed.addAndGet(items.size()));
+        assertThat(summary.fetchedItems()).isEqualTo(95).isEqualTo(consumed.get());
+        assertThat(summary.fetchedSlices()).isEqualTo(10);
+    }
+
+    @Test
+    void testStopFetchWithoutCountWhenEveryPageFails() {
+        final AtomicInteger requests = new AtomicInteger();
+        final Function<Pageable, Slice<Long>> sliceFetcher = pageable -> {
+            requests.incrementAndGet();
+            throw new IllegalStateException("Database unavailable");
+        };
+        final var options = SliceFetchOptions.builder().sliceSize(10).maxParallelism(4).lookahead(2).partialResults(true).build();
+        final var result = fetcher.fetchWithoutCount(options, sliceFetcher);
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.fetchedData()).isEmpty();
+        assertThat(result.failedRanges()).containsExactly(new OffsetRange(0, 10), new OffsetRange(10, 20));
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    private Function<Supplier<OffsetPageRequest>, OffsetPage<Long>> failingPageFetcher(Map<Long, AtomicInteger> attempts, int failures) {
+        return supplier -> {
+            final var request = supplier.get();
+            final int attempt = attempts.computeIfAbsent(request.offset(), o -> new AtomicInteger()).incrementAndGet();
+            if (request.offset() == 30 && attempt <= failures) {
+                throw new IllegalStateException("Deadlock detected");
+            }
+            final var items = LongStream.range(request.offset(), Math.min(request.offset() + request.limit(), 100)).boxed().toList();
+            return OffsetPage.of(items, request.offset(), request.limit(), 100);
+        };
+    }
 }
@@ -0,0 +1,54 @@
+package com.ia.common.utilities.helpher.data;
+
+import com.ia.common.utilities.helper.data.DefaultKeysetSliceDataFetcher;
+import com.ia.common.utilities.helper.data.KeyRangePartitioner;
+import com.ia.common.utilities.helper.data.model.SliceFetchOptions;
+import com.ia.common.utilities.helper.data.model.pagination.KeyRange;
+import com.ia.common.utilities.helper.data.model.pagination.KeyStatistics;
+import com.ia.common.utilities.helper.data.model.pagination.KeysetPageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyRangePartitionerTest {
+
+    @Test
+    void testPartitionFromHistogram() {
+        // Half of the rows hold a key below 10, the other half are spread up to 1000
+        final var statistics = new KeyStatistics(0, 1000, List.of(0L, 5L, 10L, 500L, 1000L));
+        final var ranges = KeyRangePartitioner.partition(statistics, 4);
+        assertThat(ranges).containsExactly(
+                new KeyRange<>(null, 5L),
+                new KeyRange<>(5L, 10L),
+                new KeyRange<>(10L, 500L),
+                new KeyRange<>(500L, null));
+    }
+
+    @Test
+    void testPartitionTimestampsWithoutHistogram() {
+        final var statistics = KeyStatistics.of(0, 3_000);
+        final var ranges = KeyRangePartitioner.partition(statistics, 3, Instant::ofEpochMilli);
+        assertThat(ranges).containsExactly(
+                new KeyRange<>(null, Instant.ofEpochMilli(1_000)),
+                new KeyRange<>(Instant.ofEpochMilli(1_000), Instant.ofEpochMilli(2_000)),
+                new KeyRange<>(Instant.ofEpochMilli(2_000), null));
+    }
+
+    @Test
+    void testFetchPartitionsInParallel() {
+        final List<Long> table = LongStream.rangeClosed(1, 500).boxed().toList();
+        final Function<KeysetPageRequest<Long>, List<Long>> pageFetcher = request -> table.stream()
+                .filter(key -> request.lowerKey() == null || key > request.lowerKey())
+                .filter(key -> request.upperKey() == null || key <= request.upperKey())
+                .limit(request.limit())
+                .toList();
+        final var options = SliceFetchOptions.builder().sliceSize(40).maxParallelism(4).build();
+        final var result = new DefaultKeysetSliceDataFetcher().fetch(options, KeyStatistics.of(1, 400), Function.identity(), pageFetcher);
+        assertThat(result.fetchedData()).containsExactlyElementsOf(table);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ia.common.utilities.helpher.data;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.ia.common.utilities.helper.data.model.pagination.JPAOffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.OffsetPageRequest;
+import com.ia.common.utilities.helper.data.model.pagination.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PageCursorTest {
+
+    @Test
+    void testDeepOffsetDoesNotOverflow() {
+        final long deepOffset = 3L * Integer.MAX_VALUE;
+        final var pageable = JPAOffsetPageRequest.of(new OffsetPageRequest(deepOffset, 500));
+        assertThat(pageable.getOffset()).isEqualTo(deepOffset);
+        assertThat(pageable.next().getOffset()).isEqualTo(deepOffset + 500);
+    }
+
+    @Test
+    void testEncodeAndDecodeCursor() {
+        final var cursor = new PageCursor<>(5_000_000_123L, 3L * Integer.MAX_VALUE, 500).next(5_000_000_623L, 500);
+        final String token = cursor.encode();
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+
+        final PageCursor<Long> decoded = PageCursor.decode(token, new TypeReference<>() {});
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.toKeysetRequest().lowerKey()).isEqualTo(5_000_000_623L);
+        assertThat(decoded.toPageable().getOffset()).isEqualTo(3L * Integer.MAX_VALUE + 500);
+    }
+
+    @Test
+    void testRejectInvalidToken() {
+        assertThatThrownBy(() -> PageCursor.decode("not a token!", new TypeReference<PageCursor<Long>>() {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRejectTokenHoldingInvalidCursor() {
+        final var type = new TypeReference<PageCursor<Long>>() {};
+        for (final String json : List.of("{not json", "null", "{\"lastKey\":1,\"offset\":-5,\"limit\":500}")) {
+            final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> PageCursor.decode(token, type))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid page cursor token!");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ia.common.utilities.helpher.data;
+
+import com.ia.common.utilities.helper.data.PrefetchingPageIterator;
+import com.ia.common.utilities.helper.data.model.pagination.JPAOffsetPageRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrefetchingPageIteratorTest {
+
+    @Test
+    void testIteratePagesWhilePrefetching() {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger maxAhead = new AtomicInteger();
+        final AtomicInteger consumedPages = new AtomicInteger();
+        final Function<Pageable, Page<Long>> fetcher = pageable -> {
+            requests.incrementAndGet();
+            maxAhead.accumulateAndGet((int) (pageable.getOffset() / 10) - consumedPages.get(), Math::max);
+            return page(pageable, 95);
+        };
+        try (final var pages = new PrefetchingPageIterator<>(new JPAOffsetPageRequest(0, 10), 2, null, fetcher)) {
+            final var items = pages.stream().peek(page -> consumedPages.incrementAndGet()).map(Page::getContent).flatMap(Collection::stream).toList();
+            assertThat(items).isEqualTo(LongStream.range(0, 95).boxed().toList());
+        }
+        assertThat(requests.get()).isEqualTo(10);
+        assertThat(maxAhead.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testPropagateFetchFailure() {
+        final Function<Pageable, Page<Long>> fetcher = pageable -> {
+            if (pageable.getOffset() == 20) {
+                throw new IllegalStateException("Connection lost");
+            }
+            return page(pageable, 95);
+        };
+        try (final var pages = new PrefetchingPageIterator<>(new JPAOffsetPageRequest(0, 10), 3, null, fetcher)) {
+            assertThatThrownBy(() -> pages.items().toList()).isInstanceOf(IllegalStateException.class).hasMessage("Connection lost");
+        }
+    }
+
+    @Test
+    void testInterruptPagesFetchedBeyondLastPage() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final Function<Pageable, Page<Long>> fetcher = pageable -> {
+            if (pageable.getOffset() == 0) {
+                try {
+                    // The first page is only returned once the page fetched ahead is running
+                    started.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new PageImpl<>(LongStream.range(0, 5).boxed().toList(), pageable, 5);
+            }
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return page(pageable, 5);
+        };
+        try (final var executor = Executors.newFixedThreadPool(2);
+             final var pages = new PrefetchingPageIterator<>(new JPAOffsetPageRequest(0, 10), 2, executor, fetcher)) {
+            assertThat(pages.next().getContent()).hasSize(5);
+            assertThat(pages.hasNext()).isFalse();
+            assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private Page<Long> page(Pageable pageable, long total) {
+        final var items = LongStream.range(pageable.getOffset(), Math.min(pageable.getOffset() + pageable.getPageSize(), total)).boxed().toList();
+        return new PageImpl<>(items, pageable, total);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ia.common.utilities.helpher.math;
+
+import com.ia.common.utilities.helper.data.model.pagination.OffsetRange;
+import com.ia.common.utilities.helper.math.CostBalancedPartitioner;
+import com.ia.common.utilities.helper.math.CostBalancedPartitioner.CostModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class CostBalancedPartitionerTest {
+
+    @Test
+    void testSkewedHistogramBalancesCost() {
+        // Archived rows cost 1 each, the recent rows from 900_000 cost 9 each
+        final CostModel costModel = CostModel.histogram(List.of(0L, 900_000L, 1_000_000L), List.of(900_000.0, 900_000.0));
+        final List<OffsetRange> partitions = CostBalancedPartitioner.partition(0, 1_000_000, 4, costModel);
+
+        assertThat(partitions).extracting(OffsetRange::to).containsExactly(450_000L, 900_000L, 950_000L, 1_000_000L);
+        partitions.forEach(range -> assertThat(costModel.cost(range.from(), range.to())).isCloseTo(450_000.0, within(10.0)));
+    }
+
+    @Test
+    void testCallbackCostModel() {
+        // The cost of a row grows with its offset, so the first partitions hold more rows
+        final CostModel costModel = (from, to) -> ((double) to * to - (double) from * from) / 2;
+        final List<OffsetRange> partitions = CostBalancedPartitioner.partition(0, 1_000, 4, costModel);
+
+        assertThat(partitions).extracting(OffsetRange::to).containsExactly(500L, 708L, 867L, 1_000L);
+        assertThat(partitions.getFirst().from()).isZero();
+    }
+
+    @Test
+    void testZeroCostFallsBackToEqualPartitions() {
+        assertThat(CostBalancedPartitioner.partition(0, 10, 3, (from, to) -> 0))
+                .containsExactly(new OffsetRange(0, 4), new OffsetRange(4, 8), new OffsetRange(8, 10));
+        assertThatThrownBy(() -> CostModel.histogram(List.of(0L, 0L), List.of(1.0))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,7 +3,10 @@ package com.ia.common.utilities.helpher.math;
 import com.ia.common.utilities.helper.math.SequenceGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.util.Spliterator;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SequencegeneratorTest {
 
@@ -18,4 +21,30 @@ class SequencegeneratorTest {
         final var seq = SequenceGenerator.arithmeticSequence(0,5,2);
         assertThat(seq).hasSize(4).contains(0L,2L,4L, 5L);
     }
+
+    @Test
+    void testStreamMatchesSequence() {
+        assertThat(SequenceGenerator.arithmeticStream(3, 1_000, 7).boxed().toList())
+                .isEqualTo(SequenceGenerator.arithmeticSequence(3, 1_000, 7));
+        assertThat(SequenceGenerator.arithmeticStream(2, 5_000_000, 2).parallel().sum())
+                .isEqualTo(SequenceGenerator.arithmeticStream(2, 5_000_000, 2).sum());
+    }
+
+    @Test
+    void testStreamNearMaxValueDoesNotOverflow() {
+        final long start = Long.MAX_VALUE - 10;
+        assertThat(SequenceGenerator.arithmeticStream(start, Long.MAX_VALUE, 4).toArray())
+                .containsExactly(start, start + 4, start + 8, Long.MAX_VALUE);
+        assertThatThrownBy(() -> SequenceGenerator.arithmeticStream(Long.MIN_VALUE, Long.MAX_VALUE, 1))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testSpliteratorSplitsEvenly() {
+        final Spliterator.OfLong suffix = SequenceGenerator.arithmeticSpliterator(0, 1_000_000_000_000L, 1_000);
+        assertThat(suffix.estimateSize()).isEqualTo(1_000_000_001L);
+        final Spliterator.OfLong prefix = suffix.trySplit();
+        assertThat(prefix.estimateSize()).isEqualTo(500_000_000L);
+        assertThat(suffix.estimateSize()).isEqualTo(500_000_001L);
+    }
 }
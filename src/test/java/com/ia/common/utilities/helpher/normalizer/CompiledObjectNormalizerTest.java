@@ -0,0 +1,96 @@
+package com.ia.common.utilities.helpher.normalizer;
+
+import com.ia.common.utilities.helper.normalizer.CompiledObjectNormalizer;
+import com.ia.common.utilities.helper.normalizer.DefaultObjectNormalizer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class CompiledObjectNormalizerTest {
+
+    private final CompiledObjectNormalizer normalizer = new CompiledObjectNormalizer();
+
+    @Test
+    void normalizeShouldFlattenNestedObjects() {
+        final var trade = new Trade("TPW-6666", 12, new Party("ACME", new Address("Paris", null)), Map.of("desk", "FX"), List.of("a", "b"));
+        final var normalized = normalizer.normalize(trade);
+        assertThat(normalized).containsOnly(
+                entry("reference", "TPW-6666"),
+                entry("quantity", 12),
+                entry("counterparty.name", "ACME"),
+                entry("counterparty.address.city", "Paris"),
+                entry("counterparty.address.zipCode", null),
+                entry("tags.desk", "FX"),
+                entry("legs", List.of("a", "b")));
+    }
+
+    @Test
+    void normalizeShouldMatchDefaultNormalizerOnScalarProperties() {
+        final var trade = new Trade("TPW-7777", 3, null, Map.of(), List.of());
+        assertThat(normalizer.normalize(trade)).isEqualTo(new DefaultObjectNormalizer().normalize(trade));
+    }
+
+    @Test
+    void normalizeShouldReadBeanGettersAndKeepLeafValues() {
+        final var position = new Position(BigDecimal.TEN, LocalDate.of(2025, 1, 31), new Address("Rome", "00100"));
+        assertThat(normalizer.normalize(position)).containsOnly(
+                entry("amount", BigDecimal.TEN),
+                entry("valueDate", LocalDate.of(2025, 1, 31)),
+                entry("location.city", "Rome"),
+                entry("location.zipCode", "00100"));
+    }
+
+    @Test
+    void normalizeShouldFlattenMapsAndRejectScalars() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("c", Map.of("a", 1));
+        map.put("d", new HashMap<>());
+        assertThat(normalizer.normalize((Serializable) map)).containsOnly(entry("c.a", 1), entry("d", null));
+        assertThat(normalizer.normalize(null)).isEmpty();
+        assertThatThrownBy(() -> normalizer.normalize("value")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void normalizeShouldPrefixTheObjectsFoundInMaps() {
+        final Map<String, Object> parties = new HashMap<>();
+        parties.put("buyer", new Party("ACME", new Address("Paris", null)));
+        parties.put("seller", Map.of("main", new Party("Globex", new Address("Oslo", "0150"))));
+        for (int i = 0; i < 2; i++) {
+            assertThat(normalizer.normalize((Serializable) parties)).containsOnly(
+                    entry("buyer.name", "ACME"),
+                    entry("buyer.address.city", "Paris"),
+                    entry("buyer.address.zipCode", null),
+                    entry("seller.main.name", "Globex"),
+                    entry("seller.main.address.city", "Oslo"),
+                    entry("seller.main.address.zipCode", "0150"));
+        }
+    }
+
+    record Address(String city, String zipCode) implements Serializable {
+    }
+
+    record Party(String name, Address address) implements Serializable {
+    }
+
+    record Trade(String reference, int quantity, Party counterparty, Map<String, String> tags, List<String> legs) implements Serializable {
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Position implements Serializable {
+        private BigDecimal amount;
+        private LocalDate valueDate;
+        private Object location;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ia.common.utilities.helpher.normalizer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.ia.common.utilities.helper.SerializerHelper;
+import com.ia.common.utilities.helper.normalizer.DefaultObjectNormalizer;
+import com.ia.common.utilities.helper.normalizer.JsonStreamNormalizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonStreamNormalizerTest {
+
+    private static final String JSON = """
+            {"reference": "TPW-6666", "quantity": 12, "price": 101.25, "settled": false, "trader": null,
+             "counterparty": {"name": "ACME", "address": {"city": "Paris"}, "contacts": {}},
+             "legs": [1, {"currency": "EUR"}], "big": 12345678901234}
+            """;
+
+    private final JsonStreamNormalizer normalizer = new JsonStreamNormalizer();
+
+    @Test
+    void normalizeShouldMatchDefaultNormalizer() {
+        final Map<String, Object> deserialized = SerializerHelper.deserialize(JSON, () -> new TypeReference<>() {
+        });
+        final var expected = new DefaultObjectNormalizer().normalize((Serializable) new HashMap<>(deserialized));
+
+        assertThat(normalizer.normalize(JSON)).isEqualTo(expected).containsEntry("counterparty.contacts", null);
+        assertThat(normalizer.normalize(JSON.getBytes(StandardCharsets.UTF_8))).isEqualTo(expected);
+    }
+
+    @Test
+    void normalizeShouldEmitPairsInDocumentOrder(@TempDir Path directory) throws IOException {
+        final Path file = Files.writeString(directory.resolve("trade.json"), JSON);
+        final List<String> paths = new ArrayList<>();
+        normalizer.normalize(file, (path, value) -> paths.add(path));
+        assertThat(paths).containsExactly("reference", "quantity", "price", "settled", "trader",
+                "counterparty.name", "counterparty.address.city", "counterparty.contacts", "legs", "big");
+
+        final Map<String, Object> streamed = new HashMap<>();
+        normalizer.normalize(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), streamed::put);
+        assertThat(streamed).isEqualTo(normalizer.normalize(JSON));
+    }
+
+    @Test
+    void normalizeShouldRejectInvalidDocuments() {
+        assertThat(normalizer.normalize((String) null)).isEmpty();
+        assertThat(normalizer.normalize("{}")).isEmpty();
+        assertThatThrownBy(() -> normalizer.normalize("[1, 2]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> normalizer.normalize("{\"a\": ")).isInstanceOf(RuntimeException.class);
+    }
+}
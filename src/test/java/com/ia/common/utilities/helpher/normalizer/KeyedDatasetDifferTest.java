@@ -0,0 +1,94 @@
+package com.ia.common.utilities.helpher.normalizer;
+
+import com.ia.common.utilities.helper.normalizer.CompiledObjectNormalizer;
+import com.ia.common.utilities.helper.normalizer.KeyedDatasetDiffer;
+import com.ia.common.utilities.helper.normalizer.KeyedDatasetDiffer.ChangeType;
+import com.ia.common.utilities.helper.normalizer.KeyedDatasetDiffer.DiffSummary;
+import com.ia.common.utilities.helper.normalizer.KeyedDatasetDiffer.RecordDiff;
+import com.ia.common.utilities.helper.normalizer.ObjectNormalizer.ObjectDiffDetails;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedDatasetDifferTest {
+
+    private final KeyedDatasetDiffer<Integer, Serializable> differ = KeyedDatasetDiffer.<Integer, Serializable>builder()
+            .keyProvider(trade -> ((Trade) trade).id())
+            .differenceExtractor(new CompiledObjectNormalizer().differenceExtractor())
+            .keyComparator(Comparator.naturalOrder())
+            .batchSize(100)
+            .build();
+
+    @Test
+    void diffShouldReportInsertedDeletedAndChangedRecords() {
+        final var diff = differ.diff(today(), yesterday());
+
+        assertThat(diff.inserted()).extracting(RecordDiff::key).containsExactly(10_000, 10_001);
+        assertThat(diff.deleted()).extracting(RecordDiff::key).containsExactly(5);
+        assertThat(diff.changed()).extracting(RecordDiff::key).containsExactly(42, 4_200);
+        assertThat(diff.changed().getFirst().differences()).containsOnlyKeys("price")
+                .containsEntry("price", new ObjectDiffDetails(1.5, 42.0));
+        assertThat(differ.diff(yesterday(), yesterday()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void diffSortedShouldMatchInMemoryDiff() {
+        final List<RecordDiff<Integer, Serializable>> diffs = new ArrayList<>();
+        final DiffSummary summary = differ.diffSorted(today().stream(), yesterday().stream(), diffs::add);
+
+        assertThat(summary).isEqualTo(new DiffSummary(2, 1, 2, 9_997));
+        assertThat(diffs).extracting(RecordDiff::key).containsExactly(5, 42, 4_200, 10_000, 10_001);
+        assertThat(diffs).extracting(RecordDiff::type)
+                .containsExactly(ChangeType.DELETED, ChangeType.CHANGED, ChangeType.CHANGED, ChangeType.INSERTED, ChangeType.INSERTED);
+    }
+
+    @Test
+    void diffSortedShouldRejectUnsortedInput() {
+        assertThatThrownBy(() -> differ.diffSorted(today().reversed().stream(), yesterday().stream(), diff -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void diffShouldRejectDuplicateKeysOnBothSides() {
+        final List<Serializable> single = List.of(new Trade(1, "EUR", 1));
+        final List<Serializable> duplicated = List.of(new Trade(1, "EUR", 1), new Trade(1, "EUR", 2));
+
+        assertThatThrownBy(() -> differ.diff(duplicated, single)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> differ.diff(single, duplicated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> differ.diffSorted(duplicated.stream(), single.stream(), diff -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void diffSortedShouldRejectNullRecords() {
+        final List<Serializable> withNull = new ArrayList<>(yesterday());
+        withNull.add(10, null);
+
+        assertThatThrownBy(() -> differ.diffSorted(withNull.stream(), yesterday().stream(), diff -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Serializable> yesterday() {
+        return IntStream.range(0, 10_000).<Serializable>mapToObj(i -> new Trade(i, "EUR", i)).toList();
+    }
+
+    private static List<Serializable> today() {
+        final List<Serializable> trades = new ArrayList<>(yesterday());
+        trades.set(42, new Trade(42, "EUR", 1.5));
+        trades.set(4_200, new Trade(4_200, "USD", 4_200));
+        trades.remove(5);
+        trades.add(new Trade(10_000, "EUR", 1));
+        trades.add(new Trade(10_001, "EUR", 1));
+        return trades;
+    }
+
+    record Trade(int id, String currency, double price) implements Serializable {
+    }
+}
@@ -0,0 +1,166 @@
+package com.ia.common.utilities.helpher.normalizer;
+
+import com.ia.common.utilities.helper.normalizer.DefaultObjectNormalizer;
+import com.ia.common.utilities.helper.normalizer.ListDiffStrategy;
+import com.ia.common.utilities.helper.normalizer.MerkleDiffEngine;
+import com.ia.common.utilities.helper.normalizer.ObjectNormalizer.ObjectDiffDetails;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class MerkleDiffEngineTest {
+
+    @Test
+    void diffShouldMatchDifferenceExtractor() {
+        final var expected = aggregate(200);
+        final var actual = aggregate(200);
+        section(actual, 17).put("price", 99.5);
+        section(actual, 42).put("currency", Map.of("code", "USD"));
+        section(actual, 150).remove("status");
+        actual.put("extra", "ignored");
+
+        final MerkleDiffEngine<Serializable> engine = MerkleDiffEngine.create(16);
+        final var differences = engine.diff(actual, expected);
+
+        assertThat(differences).isEqualTo(new DefaultObjectNormalizer().differenceExtractor().apply(actual, expected));
+        assertThat(differences).containsOnlyKeys("section17.price", "section42.currency.code", "section150.status")
+                .containsEntry("section17.price", new ObjectDiffDetails(99.5, 17.0));
+        assertThat(engine.differs(actual, expected)).isTrue();
+        assertThat(engine.differs(aggregate(200), expected)).isFalse();
+    }
+
+    @Test
+    void diffShouldIgnoreKeyOrderAndHashCachedObjectsOnce() {
+        final AtomicInteger conversions = new AtomicInteger();
+        final MerkleDiffEngine<Map<String, Object>> engine = MerkleDiffEngine.create(tree -> {
+            conversions.incrementAndGet();
+            return tree;
+        }, 16);
+        final Map<String, Object> reference = new HashMap<>(Map.of("a", 1, "b", Map.of("c", "x", "d", "y")));
+        final Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("b", new LinkedHashMap<>(Map.of("d", "y", "c", "x")));
+        reordered.put("a", 1);
+
+        assertThat(engine.differs(reordered, reference)).isFalse();
+        assertThat(engine.diff(reordered, reference)).isEmpty();
+        assertThat(engine.diff(null, reference)).containsOnlyKeys("a", "b.c", "b.d");
+        assertThat(conversions).hasValue(2);
+    }
+
+    @Test
+    void diffShouldNotTakeValuesWithTheSameStringForEqual() {
+        final MerkleDiffEngine<Map<String, Object>> engine = MerkleDiffEngine.create(tree -> tree, 16);
+        final Map<String, Object> joined = Map.of("codes", List.of("a, b"));
+        final Map<String, Object> split = Map.of("codes", List.of("a", "b"));
+        final Map<String, Object> text = Map.of("codes", List.of("1"));
+        final Map<String, Object> number = Map.of("codes", List.of(1));
+
+        assertThat(engine.diff(joined, split)).containsOnly(entry("codes", new ObjectDiffDetails(List.of("a, b"), List.of("a", "b"))));
+        assertThat(engine.differs(joined, split)).isTrue();
+        assertThat(engine.diff(text, number)).containsOnly(entry("codes", new ObjectDiffDetails(List.of("1"), List.of(1))));
+        assertThat(engine.differs(text, number)).isTrue();
+        assertThat(engine.differs(Map.of("price", 1L), Map.of("price", 1))).isTrue();
+        assertThat(engine.differs(Map.of("codes", new ArrayList<>(List.of("a", "b"))), split)).isFalse();
+    }
+
+    @Test
+    void diffShouldReportChangedListElementsOnly() {
+        final Map<String, Object> expected = Map.of("legs", legs(10_000));
+        final List<Object> changedLegs = legs(10_000);
+        changedLegs.set(1_234, Map.of("legId", 1_234, "price", -1));
+        final List<Object> shiftedLegs = legs(10_000);
+        shiftedLegs.remove(10);
+        shiftedLegs.add(5_000, Map.of("legId", -1, "price", 0));
+
+        final MerkleDiffEngine<Map<String, Object>> leafEngine = MerkleDiffEngine.create(tree -> tree, 0);
+        assertThat(leafEngine.diff(Map.of("legs", changedLegs), expected)).containsOnlyKeys("legs");
+
+        final MerkleDiffEngine<Map<String, Object>> positional = engine(ListDiffStrategy.positional());
+        assertThat(positional.diff(Map.of("legs", changedLegs), expected))
+                .containsOnly(entry("legs[1234].price", new ObjectDiffDetails(-1, 1_234)));
+
+        final MerkleDiffEngine<Map<String, Object>> aligned = engine(ListDiffStrategy.aligned());
+        assertThat(aligned.diff(Map.of("legs", shiftedLegs), expected))
+                .containsOnlyKeys("legs[10]", "legs[+5000]");
+
+        final MerkleDiffEngine<Map<String, Object>> keyed = engine(ListDiffStrategy.keyedBy("legId"));
+        final List<Object> reversedLegs = legs(10_000).reversed();
+        assertThat(keyed.differs(Map.of("legs", reversedLegs), expected)).isFalse();
+        assertThat(keyed.diff(Map.of("legs", shiftedLegs), expected))
+                .containsOnly(entry("legs[10]", new ObjectDiffDetails(null, Map.of("legId", 10, "price", 10))),
+                        entry("legs[+-1]", new ObjectDiffDetails(Map.of("legId", -1, "price", 0), null)));
+    }
+
+    @Test
+    void diffShouldRejectDuplicateOrMissingListIds() {
+        final MerkleDiffEngine<Map<String, Object>> keyed = engine(ListDiffStrategy.keyedBy("legId"));
+        final Map<String, Object> expected = Map.of("legs", legs(3));
+        final List<Object> duplicateLegs = legs(3);
+        duplicateLegs.set(2, Map.of("legId", 1, "price", 2));
+        final List<Object> missingIdLegs = legs(3);
+        missingIdLegs.set(2, Map.of("price", 2));
+
+        assertThatThrownBy(() -> keyed.diff(Map.of("legs", duplicateLegs), expected))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Duplicate actual list id: 1");
+        assertThatThrownBy(() -> keyed.diff(expected, Map.of("legs", duplicateLegs)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Duplicate expected list id: 1");
+        assertThatThrownBy(() -> keyed.differs(Map.of("legs", missingIdLegs), expected))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Missing actual list id");
+        assertThatThrownBy(() -> keyed.diff(expected, Map.of("legs", missingIdLegs)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Missing expected list id");
+    }
+
+    @Test
+    void cacheShouldNotRetainTreesOfTheirOwnObjects() {
+        final MerkleDiffEngine<Map<String, Object>> engine = MerkleDiffEngine.create(tree -> tree, 16);
+        Map<String, Object> compared = new HashMap<>(Map.of("price", 1, "currency", Map.of("code", "EUR")));
+        assertThat(engine.differs(compared, Map.of("price", 1, "currency", Map.of("code", "EUR")))).isFalse();
+        final WeakReference<Map<String, Object>> reference = new WeakReference<>(compared);
+        compared = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+        }
+        assertThat(reference.get()).isNull();
+    }
+
+    private static HashMap<String, Object> aggregate(int sections) {
+        final HashMap<String, Object> aggregate = new HashMap<>();
+        for (int i = 0; i < sections; i++) {
+            final Map<String, Object> section = new HashMap<>();
+            section.put("price", (double) i);
+            section.put("currency", Map.of("code", "EUR"));
+            section.put("status", "BOOKED");
+            aggregate.put("section" + i, section);
+        }
+        return aggregate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> aggregate, int index) {
+        return (Map<String, Object>) aggregate.get("section" + index);
+    }
+
+    private static MerkleDiffEngine<Map<String, Object>> engine(ListDiffStrategy strategy) {
+        return MerkleDiffEngine.<Map<String, Object>>builder().treeProvider(tree -> tree).listStrategy("legs", strategy).build();
+    }
+
+    private static List<Object> legs(int size) {
+        final List<Object> legs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            legs.add(Map.of("legId", i, "price", i));
+        }
+        return legs;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ia.common.utilities.helpher.normalizer;
+
+import com.ia.common.utilities.helper.normalizer.CompiledObjectNormalizer;
+import com.ia.common.utilities.helper.normalizer.DefaultObjectNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Compares the normalization of a nested entity through the Jackson tree of DefaultObjectNormalizer
+ * with the compiled flattening plan of CompiledObjectNormalizer.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ia.common.utilities.helpher.normalizer.ObjectNormalizerBenchmark}
+ * or from the IDE, adding {@code -prof gc} to the runner options to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectNormalizerBenchmark {
+
+    private final Trade trade = new Trade("TPW-6666", 12, 1_250_000.5, "EUR",
+            new Party("ACME", "LEI-1234", new Address("1 rue de Rivoli", "Paris", "75001")),
+            new Party("Globex", "LEI-5678", new Address("5th Avenue", "New York", "10001")));
+    private final DefaultObjectNormalizer defaultNormalizer = new DefaultObjectNormalizer();
+    private final CompiledObjectNormalizer compiledNormalizer = new CompiledObjectNormalizer();
+
+    @Benchmark
+    public Map<String, Object> jacksonTree() {
+        return defaultNormalizer.normalize(trade);
+    }
+
+    @Benchmark
+    public Map<String, Object> compiledPlan() {
+        return compiledNormalizer.normalize(trade);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ObjectNormalizerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public record Address(String street, String city, String zipCode) implements Serializable {
+    }
+
+    public record Party(String name, String lei, Address address) implements Serializable {
+    }
+
+    public record Trade(String reference, int quantity, double amount, String currency, Party buyer, Party seller) implements Serializable {
+    }
+}